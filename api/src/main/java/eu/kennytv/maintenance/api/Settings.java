@@ -48,7 +48,7 @@ public interface Settings {
      * Returns a map of the currently maintenance-whitelisted players as their uuid mapped to their saved name.
      * Note that the names might be incorrect/outdated.
      *
-     * @return map of uuids of whitelisted players with their given names
+     * @return unmodifiable map of uuids of whitelisted players with their given names
      */
     Map<UUID, String> getWhitelistedPlayers();
 
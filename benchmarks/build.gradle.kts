@@ -0,0 +1,14 @@
+dependencies {
+    jmhImplementation(projects.maintenanceCoreProxy)
+    jmhImplementation(projects.maintenanceBungee)
+    jmhImplementation(libs.adventureApi)
+    jmhImplementation(libs.adventureTextSerializerGson)
+    jmhImplementation(libs.gson)
+    jmhImplementation(libs.guava)
+    jmhImplementation(libs.snakeyaml)
+    jmhImplementation(libs.bungee)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+}
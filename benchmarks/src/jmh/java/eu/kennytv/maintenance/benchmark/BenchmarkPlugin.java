@@ -0,0 +1,174 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.benchmark;
+
+import eu.kennytv.maintenance.api.proxy.Server;
+import eu.kennytv.maintenance.core.dump.PluginDump;
+import eu.kennytv.maintenance.core.proxy.MaintenanceProxyPlugin;
+import eu.kennytv.maintenance.core.proxy.SettingsProxy;
+import eu.kennytv.maintenance.core.util.SenderInfo;
+import eu.kennytv.maintenance.core.util.ServerType;
+import eu.kennytv.maintenance.core.util.Task;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Proxy plugin without a platform, using a temporary data folder with the shipped config and language files.
+ * Only one instance can exist per JVM, since the api provider can only be set once.
+ */
+public final class BenchmarkPlugin extends MaintenanceProxyPlugin {
+    private static BenchmarkPlugin instance;
+    private final Map<String, Server> servers = new HashMap<>();
+    private final Logger logger = Logger.getLogger("Maintenance");
+    private final File dataFolder;
+
+    private BenchmarkPlugin() {
+        super("0.0.0-benchmark", ServerType.VELOCITY);
+        try {
+            dataFolder = Files.createTempDirectory("maintenance-benchmark").toFile();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        registerServer("lobby");
+        registerServer("survival");
+        registerServer("waiting");
+        settingsProxy = new SettingsProxy(this);
+        settings = settingsProxy;
+    }
+
+    public static synchronized BenchmarkPlugin get() {
+        if (instance == null) {
+            instance = new BenchmarkPlugin();
+        }
+        return instance;
+    }
+
+    private void registerServer(final String name) {
+        servers.put(name, new BenchmarkServer(name));
+    }
+
+    @Override
+    public Task startMaintenanceRunnable(final Runnable runnable) {
+        return () -> {
+        };
+    }
+
+    @Override
+    @Nullable
+    public Server getServer(final String server) {
+        return servers.get(server);
+    }
+
+    @Override
+    public Set<String> getServers() {
+        return Collections.unmodifiableSet(servers.keySet());
+    }
+
+    @Override
+    public CompletableFuture<@Nullable SenderInfo> getOfflinePlayer(final String name) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable SenderInfo> getOfflinePlayer(final UUID uuid) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    @Nullable
+    public String getServerNameOf(final SenderInfo sender) {
+        return "lobby";
+    }
+
+    @Override
+    public void async(final Runnable runnable) {
+        runnable.run();
+    }
+
+    @Override
+    protected void executeConsoleCommand(final String command) {
+    }
+
+    @Override
+    public void broadcast(final Component component) {
+    }
+
+    @Override
+    public File getDataFolder() {
+        return dataFolder;
+    }
+
+    @Override
+    protected File getPluginFile() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected int getOnlinePlayers() {
+        return 137;
+    }
+
+    @Override
+    protected int getMaxPlayers() {
+        return 500;
+    }
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public String getServerVersion() {
+        return "benchmark";
+    }
+
+    @Override
+    public List<PluginDump> getPlugins() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected void loadIcon(final File file) {
+    }
+
+    @Override
+    protected void kickPlayers(final Server server, final Server fallback) {
+    }
+
+    @Override
+    protected void kickPlayersTo(final Server server) {
+    }
+
+    @Override
+    protected void kickPlayersFromProxy() {
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.benchmark;
+
+import eu.kennytv.maintenance.bungee.util.BungeeComponentConverter;
+import eu.kennytv.maintenance.core.util.ComponentConverter;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.minimessage.MiniMessage;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the structural component conversion with the previous json round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ComponentConversionBenchmark {
+
+    @Param({
+            "<red>Currently under maintenance",
+            "<red>Currently under maintenance<br><gradient:#fbffc2:#0fffff>We will be back soon!",
+            "<hover:show_text:'<gold>Discord'><click:open_url:'https://discord.gg/example'><bold>Join our Discord</bold></click></hover> <gray>for updates"
+    })
+    public String message;
+    private Component component;
+
+    @Setup
+    public void setup() {
+        component = MiniMessage.miniMessage().deserialize(message);
+    }
+
+    @Benchmark
+    public net.kyori.adventure.text.Component adventureJson() {
+        return ComponentConverter.toPlatformJson(component);
+    }
+
+    @Benchmark
+    public net.kyori.adventure.text.Component adventureStructural() {
+        return ComponentConverter.toPlatform(component);
+    }
+
+    @Benchmark
+    public BaseComponent bungeeJson() {
+        return BungeeComponentConverter.toBungeeJson(component);
+    }
+
+    @Benchmark
+    public BaseComponent bungeeStructural() {
+        return BungeeComponentConverter.toBungee(component);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.benchmark;
+
+import eu.kennytv.maintenance.core.config.Config;
+import eu.kennytv.maintenance.core.config.ConfigSerializer;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Comment preserving (de)serialization of the shipped files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigSerializerBenchmark {
+
+    @Param({"config.yml", "language-en.yml"})
+    public String file;
+    private String data;
+    private Config config;
+
+    @Setup
+    public void setup() throws IOException {
+        final File tempFile = File.createTempFile("maintenance-benchmark", ".yml");
+        tempFile.deleteOnExit();
+        try (final InputStream in = ConfigSerializerBenchmark.class.getClassLoader().getResourceAsStream(file)) {
+            Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        data = new String(Files.readAllBytes(tempFile.toPath()), StandardCharsets.UTF_8);
+        config = new Config(tempFile);
+        config.load();
+    }
+
+    @Benchmark
+    public String serialize() {
+        return config.toString();
+    }
+
+    @Benchmark
+    public Map<String, String[]> deserializeComments() {
+        return ConfigSerializer.deserializeComments(data);
+    }
+}
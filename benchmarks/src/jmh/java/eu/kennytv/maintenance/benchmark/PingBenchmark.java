@@ -0,0 +1,79 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.benchmark;
+
+import eu.kennytv.maintenance.core.PingResponse;
+import eu.kennytv.maintenance.core.proxy.SettingsProxy;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Status ping and message rendering with the default config and language file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PingBenchmark {
+    private BenchmarkPlugin plugin;
+    private SettingsProxy settings;
+
+    @Setup
+    public void setup() {
+        plugin = BenchmarkPlugin.get();
+        settings = plugin.getSettingsProxy();
+        settings.setMaintenance(true);
+    }
+
+    @Benchmark
+    public Component randomPingMessage() {
+        return settings.getRandomPingMessage();
+    }
+
+    @Benchmark
+    public PingResponse pingResponse() {
+        return settings.getPingResponse();
+    }
+
+    @Benchmark
+    public PingResponse renderPingResponse() {
+        settings.getPingResponseCache().invalidate();
+        return settings.getPingResponse();
+    }
+
+    @Benchmark
+    public String replacePingVariables() {
+        return plugin.replacePingVariables("<red>Currently under maintenance <gray>(%ONLINE%/%MAX%)");
+    }
+
+    @Benchmark
+    public String languageStringWithReplacements() {
+        return settings.getLanguageString("singleMaintenanceKick", "%SERVER%", "survival");
+    }
+
+    @Benchmark
+    public Component kickMessage() {
+        return settings.getKickMessage();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.benchmark;
+
+import eu.kennytv.maintenance.api.proxy.Server;
+import eu.kennytv.maintenance.core.proxy.MaintenanceProxyPlugin;
+import eu.kennytv.maintenance.core.proxy.SettingsProxy;
+import eu.kennytv.maintenance.core.proxy.listener.ProxyJoinListenerBase;
+import eu.kennytv.maintenance.core.proxy.util.ServerConnectResult;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Server connect checks of a player without bypass permissions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServerConnectBenchmark {
+    private final BenchmarkSender sender = new BenchmarkSender(UUID.randomUUID(), "kennytv");
+    private BenchmarkPlugin plugin;
+    private JoinListener listener;
+    private Server lobby;
+    private Server survival;
+
+    @Setup
+    public void setup() {
+        plugin = BenchmarkPlugin.get();
+        listener = new JoinListener(plugin, plugin.getSettingsProxy());
+        lobby = plugin.getServer("lobby");
+        survival = plugin.getServer("survival");
+        plugin.getSettingsProxy().setMaintenance(false);
+        plugin.setMaintenanceToServer(survival, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        plugin.setMaintenanceToServer(survival, false);
+    }
+
+    @Benchmark
+    public ServerConnectResult allowed() {
+        return listener.connect(sender, lobby, true);
+    }
+
+    @Benchmark
+    public ServerConnectResult deniedSingleServer() {
+        return listener.connect(sender, survival, true);
+    }
+
+    @Benchmark
+    public ServerConnectResult redirectedToFallback() {
+        return listener.connect(sender, survival, false);
+    }
+
+    private static final class JoinListener extends ProxyJoinListenerBase {
+
+        private JoinListener(final MaintenanceProxyPlugin plugin, final SettingsProxy settings) {
+            super(plugin, settings);
+        }
+
+        private ServerConnectResult connect(final BenchmarkSender sender, final Server target, final boolean normalServerConnect) {
+            return serverConnect(sender, target, normalServerConnect);
+        }
+
+        @Override
+        protected void broadcastJoinNotification(final String name) {
+        }
+
+        @Override
+        protected void broadcastJoinNotification(final String name, final Server server) {
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.benchmark;
+
+import eu.kennytv.maintenance.core.Settings;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Whitelist lookups with large whitelists loaded from the whitelist file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WhitelistBenchmark {
+    private static final int LOOKUP_KEYS = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+    private Settings settings;
+    private final UUID[] whitelistedUuids = new UUID[LOOKUP_KEYS];
+    private final String[] whitelistedNames = new String[LOOKUP_KEYS];
+    private final UUID[] unknownUuids = new UUID[LOOKUP_KEYS];
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        final BenchmarkPlugin plugin = BenchmarkPlugin.get();
+        final SplittableRandom random = new SplittableRandom(42);
+        final File file = new File(plugin.getDataFolder(), "WhitelistedPlayers.yml");
+        try (final BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < entries; i++) {
+                final UUID uuid = new UUID(random.nextLong(), random.nextLong());
+                final String name = "Player" + i;
+                if (i < LOOKUP_KEYS) {
+                    whitelistedUuids[i] = uuid;
+                    whitelistedNames[i] = name.toLowerCase();
+                }
+                writer.write(uuid + ": " + name + "\n");
+            }
+        }
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            unknownUuids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+
+        settings = plugin.getSettings();
+        settings.reloadConfigs();
+    }
+
+    private int nextIndex() {
+        return index = (index + 1) & (LOOKUP_KEYS - 1);
+    }
+
+    @Benchmark
+    public boolean isWhitelisted() {
+        return settings.isWhitelisted(whitelistedUuids[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isWhitelistedMiss() {
+        return settings.isWhitelisted(unknownUuids[nextIndex()]);
+    }
+
+    @Benchmark
+    public UUID lookupByName() {
+        // Same lookup as done when removing a player by name
+        return settings.getWhitelist().getUuid(whitelistedNames[nextIndex()]);
+    }
+}
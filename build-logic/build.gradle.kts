@@ -9,4 +9,5 @@ repositories {
 dependencies {
     // version must be manually kept in sync with the one in root project settings.gradle.kts
     implementation("com.gradleup.shadow", "shadow-gradle-plugin", "8.3.0")
+    implementation("me.champeau.jmh", "jmh-gradle-plugin", "0.7.2")
 }
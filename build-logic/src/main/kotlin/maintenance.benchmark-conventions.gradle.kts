@@ -0,0 +1,27 @@
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+// Not published, only run locally via the jmh task
+tasks {
+    compileJava {
+        options.encoding = Charsets.UTF_8.name()
+    }
+    named<JavaCompile>("compileJmhJava") {
+        options.encoding = Charsets.UTF_8.name()
+    }
+}
+
+java {
+    javaTarget(17)
+}
+
+jmh {
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    // Report allocation rates next to the timings
+    profilers.add("gc")
+}
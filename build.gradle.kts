@@ -32,6 +32,7 @@ subprojects {
     when (path) {
         in platforms -> plugins.apply("maintenance.platform-conventions")
         in special -> plugins.apply("maintenance.base-conventions")
+        projects.maintenanceBenchmarks.path -> plugins.apply("maintenance.benchmark-conventions")
         else -> plugins.apply("maintenance.standard-conventions")
     }
 
@@ -5,4 +5,5 @@ dependencies {
     }
     implementation(libs.bstatsBungee)
     compileOnly(libs.bungee)
+    testImplementation(libs.bungee)
 }
@@ -31,7 +31,6 @@ import eu.kennytv.maintenance.core.hook.ServerListPlusHook;
 import eu.kennytv.maintenance.core.proxy.MaintenanceProxyPlugin;
 import eu.kennytv.maintenance.core.proxy.SettingsProxy;
 import eu.kennytv.maintenance.core.proxy.hook.LuckPermsProxyHook;
-import eu.kennytv.maintenance.core.proxy.util.ProfileLookup;
 import eu.kennytv.maintenance.core.proxy.util.ProxyOfflineSenderInfo;
 import eu.kennytv.maintenance.core.util.SenderInfo;
 import eu.kennytv.maintenance.core.util.ServerType;
@@ -41,6 +40,7 @@ import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -53,6 +53,7 @@ import javax.imageio.ImageIO;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.Favicon;
 import net.md_5.bungee.api.ProxyServer;
+import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.config.ServerInfo;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Plugin;
@@ -71,6 +72,7 @@ public final class MaintenanceBungeePlugin extends MaintenanceProxyPlugin {
         this.audiences = BungeeAudiences.create(plugin);
 
         settingsProxy = new SettingsProxy(this);
+        loadProfileCache();
         settings = settingsProxy;
 
         sendEnableMessage();
@@ -108,11 +110,19 @@ public final class MaintenanceBungeePlugin extends MaintenanceProxyPlugin {
 
     @Override
     protected void kickPlayersFromProxy() {
+        // Rendered once, as it is the same for every player
+        final BaseComponent kickMessage = ComponentUtil.toBadComponents(settingsProxy.getKickMessage());
+        final List<ProxiedPlayer> players = new ArrayList<>();
         for (final ProxiedPlayer player : getProxy().getPlayers()) {
             if (!hasPermission(player, "bypass") && !settingsProxy.isWhitelisted(player.getUniqueId())) {
-                player.disconnect(ComponentUtil.toBadComponents(settingsProxy.getKickMessage()));
+                players.add(player);
             }
         }
+
+        drainPlayers(players, player -> {
+            player.disconnect(kickMessage);
+            return null;
+        }, "Kicking players");
     }
 
     @Override
@@ -120,36 +130,64 @@ public final class MaintenanceBungeePlugin extends MaintenanceProxyPlugin {
         // Kick players from a proxied server
         final ServerInfo fallbackServer = fallback != null ? ((BungeeServer) fallback).getServer() : null;
         final boolean checkForFallback = fallbackServer != null && !isMaintenance(fallback);
+        final Component activatedMessage = settingsProxy.getMessage("singleMaintenanceActivated", "%SERVER%", server.getName());
+        final BaseComponent kickMessage = ComponentUtil.toBadComponents(settingsProxy.getFullServerKickMessage(server.getName()));
+        final List<ProxiedPlayer> players = new ArrayList<>();
         for (final ProxiedPlayer player : ((BungeeServer) server).getServer().getPlayers()) {
             if (!hasPermission(player, "bypass") && !settingsProxy.isWhitelisted(player.getUniqueId())) {
-                if (checkForFallback && fallbackServer.canAccess(player)) {
-                    audiences.player(player).sendMessage(settingsProxy.getMessage("singleMaintenanceActivated", "%SERVER%", server.getName()));
-                    player.connect(fallbackServer);
-                } else {
-                    player.disconnect(ComponentUtil.toBadComponents(settingsProxy.getFullServerKickMessage(server.getName())));
-                }
+                players.add(player);
             } else {
-                audiences.player(player).sendMessage(settingsProxy.getMessage("singleMaintenanceActivated", "%SERVER%", server.getName()));
+                audiences.player(player).sendMessage(activatedMessage);
             }
         }
+
+        drainPlayers(server, players, player -> {
+            if (!checkForFallback || !fallbackServer.canAccess(player)) {
+                player.disconnect(kickMessage);
+                return null;
+            }
+
+            audiences.player(player).sendMessage(activatedMessage);
+            return connect(player, fallbackServer);
+        }, checkForFallback ? "Moving players from " + server.getName() + " to " + fallback.getName() : "Kicking players from " + server.getName());
     }
 
     @Override
     protected void kickPlayersTo(final Server server) {
         // Kick all players to a single waiting server
         final ServerInfo serverInfo = ((BungeeServer) server).getServer();
+        final Component sentMessage = settingsProxy.getMessage("sentToWaitingServer", "%SERVER%", server.getName());
+        final BaseComponent kickMessage = ComponentUtil.toBadComponents(settingsProxy.getKickMessage());
         // Notifications done in global method
+        final List<ProxiedPlayer> players = new ArrayList<>();
         for (final ProxiedPlayer player : getProxy().getPlayers()) {
             if (hasPermission(player, "bypass") || settingsProxy.isWhitelisted(player.getUniqueId())) continue;
             if (player.getServer() != null && player.getServer().getInfo().getName().equals(serverInfo.getName()))
                 continue;
-            if (serverInfo.canAccess(player) && !isMaintenance(serverInfo)) {
-                audiences.player(player).sendMessage(settingsProxy.getMessage("sentToWaitingServer", "%SERVER%", server.getName()));
-                player.connect(serverInfo);
+            players.add(player);
+        }
+
+        drainPlayers(players, player -> {
+            if (!serverInfo.canAccess(player) || isMaintenance(serverInfo)) {
+                player.disconnect(kickMessage);
+                return null;
+            }
+
+            audiences.player(player).sendMessage(sentMessage);
+            return connect(player, serverInfo);
+        }, "Moving players to " + server.getName());
+    }
+
+    private CompletableFuture<Boolean> connect(final ProxiedPlayer player, final ServerInfo serverInfo) {
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        player.connect(serverInfo, (success, throwable) -> {
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
             } else {
-                player.disconnect(ComponentUtil.toBadComponents(settingsProxy.getKickMessage()));
+                future.complete(success);
             }
-        }
+        });
+        return future;
     }
 
     @Override
@@ -164,14 +202,7 @@ public final class MaintenanceBungeePlugin extends MaintenanceProxyPlugin {
             return CompletableFuture.completedFuture(new BungeeSenderInfo(player));
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                final ProfileLookup profile = doUUIDLookup(name);
-                return new ProxyOfflineSenderInfo(profile.getUuid(), profile.getName());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        return lookupProfile(name).thenApply(profile -> profile != null ? new ProxyOfflineSenderInfo(profile.getUuid(), profile.getName()) : null);
     }
 
     @Override
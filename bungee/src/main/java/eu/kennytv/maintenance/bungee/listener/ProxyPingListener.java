@@ -19,8 +19,11 @@ package eu.kennytv.maintenance.bungee.listener;
 
 import eu.kennytv.maintenance.bungee.MaintenanceBungeePlugin;
 import eu.kennytv.maintenance.bungee.util.ComponentUtil;
+import eu.kennytv.maintenance.core.PingResponse;
+import eu.kennytv.maintenance.core.SettingsSnapshot;
 import eu.kennytv.maintenance.core.proxy.SettingsProxy;
 import net.md_5.bungee.api.ServerPing;
+import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.event.ProxyPingEvent;
 import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.event.EventHandler;
@@ -41,22 +44,26 @@ public final class ProxyPingListener implements Listener {
         }
 
         final ServerPing ping = event.getResponse();
-        if (settings.hasCustomPlayerCountMessage()) {
-            ping.setVersion(new ServerPing.Protocol(settings.getLegacyParsedPlayerCountMessage(), 1));
+        final PingResponse response = settings.getPingResponse();
+        final SettingsSnapshot snapshot = response.getSettings();
+        if (snapshot.hasCustomPlayerCountMessage()) {
+            ping.setVersion(new ServerPing.Protocol(response.getPlayerCountMessage(), 1));
         }
 
-        if (settings.isEnablePingMessages()) {
-            ping.setDescriptionComponent(ComponentUtil.toBadComponents(settings.getRandomPingMessage()));
+        if (snapshot.isEnablePingMessages()) {
+            // Bungee components are mutable, so only hand out copies of the cached one
+            final BaseComponent description = response.getPlatformDescription(ComponentUtil::toBadComponents);
+            ping.setDescriptionComponent(description.duplicate());
         }
 
-        if (settings.hasCustomPlayerCountHoverMessage()) {
+        if (snapshot.hasCustomPlayerCountHoverMessage()) {
             ServerPing.Players players = ping.getPlayers();
             if (players == null) {
                 players = new ServerPing.Players(0, 0, null);
                 ping.setPlayers(players);
             }
 
-            final String[] lines = settings.getLegacyParsedPlayerCountHoverLines();
+            final String[] lines = response.getPlayerCountHoverLines();
             final ServerPing.PlayerInfo[] samplePlayers = new ServerPing.PlayerInfo[lines.length];
             for (int i = 0; i < lines.length; i++) {
                 samplePlayers[i] = new ServerPing.PlayerInfo(lines[i], "");
@@ -64,7 +71,7 @@ public final class ProxyPingListener implements Listener {
             players.setSample(samplePlayers);
         }
 
-        if (settings.hasCustomIcon() && plugin.getFavicon() != null) {
+        if (snapshot.hasCustomIcon() && plugin.getFavicon() != null) {
             ping.setFavicon(plugin.getFavicon());
         }
     }
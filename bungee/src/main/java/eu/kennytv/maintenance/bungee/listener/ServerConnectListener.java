@@ -21,12 +21,15 @@ import eu.kennytv.maintenance.api.proxy.Server;
 import eu.kennytv.maintenance.bungee.MaintenanceBungeePlugin;
 import eu.kennytv.maintenance.bungee.util.BungeeSenderInfo;
 import eu.kennytv.maintenance.bungee.util.BungeeServer;
+import eu.kennytv.maintenance.bungee.util.ComponentUtil;
 import eu.kennytv.maintenance.core.proxy.SettingsProxy;
 import eu.kennytv.maintenance.core.proxy.listener.ProxyJoinListenerBase;
 import eu.kennytv.maintenance.core.proxy.util.ServerConnectResult;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PreLoginEvent;
 import net.md_5.bungee.api.event.ServerConnectEvent;
 import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.event.EventHandler;
@@ -40,11 +43,27 @@ public final class ServerConnectListener extends ProxyJoinListenerBase implement
         this.plugin = plugin;
     }
 
+    @EventHandler
+    public void preLogin(final PreLoginEvent event) {
+        if (event.isCancelled()) return;
+
+        // Refuse definitely denied players before they are authenticated
+        final String name = event.getConnection().getName();
+        if (shouldKickEarly(null, name)) {
+            event.setCancelled(true);
+            event.setCancelReason(ComponentUtil.toBadComponent(settings.getKickMessage()));
+            if (settings.isJoinNotifications()) {
+                broadcastJoinNotification(name);
+            }
+        }
+    }
+
     @EventHandler
     public void initialServerConnect(final ServerConnectEvent event) {
         // Global maintenance check
         if (event.isCancelled() || event.getReason() != ServerConnectEvent.Reason.JOIN_PROXY) return;
 
+        plugin.getProfileCache().recordSeen(event.getPlayer().getUniqueId(), event.getPlayer().getName());
         final BungeeSenderInfo player = new BungeeSenderInfo(event.getPlayer());
         if (plugin.isDebug()) {
             plugin.getLogger().info("Join permission check for " + event.getPlayer().getName()
@@ -69,6 +88,13 @@ public final class ServerConnectListener extends ProxyJoinListenerBase implement
             if (settings.isJoinNotifications()) {
                 broadcastJoinNotification(player.getName());
             }
+            return;
+        }
+
+        final AdmissionQueue.Ticket ticket = checkProxyAdmission(player);
+        if (ticket != null) {
+            event.setCancelled(true);
+            player.disconnect(getAdmissionMessage(ticket, true));
         }
     }
 
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.bungee.util;
+
+import eu.kennytv.maintenance.lib.kyori.adventure.key.Key;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.KeybindComponent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.TextComponent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.TranslatableComponent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.event.ClickEvent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.event.HoverEvent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.NamedTextColor;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.Style;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.TextColor;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.TextDecoration;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.hover.content.Text;
+import net.md_5.bungee.chat.ComponentSerializer;
+
+/**
+ * Converts relocated components to Bungee components by walking the component tree.
+ * Only components and events not known to the converter are converted via json.
+ */
+public final class BungeeComponentConverter {
+    private static final Map<NamedTextColor, ChatColor> NAMED_COLORS = new HashMap<>();
+    private static final Map<ClickEvent.Action, net.md_5.bungee.api.chat.ClickEvent.Action> CLICK_ACTIONS = new HashMap<>();
+
+    static {
+        for (final NamedTextColor color : NamedTextColor.NAMES.values()) {
+            NAMED_COLORS.put(color, ChatColor.of(NamedTextColor.NAMES.key(color)));
+        }
+        for (final ClickEvent.Action action : ClickEvent.Action.values()) {
+            try {
+                CLICK_ACTIONS.put(action, net.md_5.bungee.api.chat.ClickEvent.Action.valueOf(action.name()));
+            } catch (final IllegalArgumentException ignored) {
+                // Not supported by this Bungee version, use json instead
+            }
+        }
+    }
+
+    private BungeeComponentConverter() {
+    }
+
+    public static BaseComponent toBungee(final Component component) {
+        final BaseComponent converted = convert(component);
+        return converted != null ? converted : toBungeeJson(component);
+    }
+
+    /**
+     * Converts the component via json, keeping anything not known to the structural conversion.
+     *
+     * @param component component to convert
+     * @return Bungee component
+     */
+    public static BaseComponent toBungeeJson(final Component component) {
+        final BaseComponent[] components = ComponentSerializer.parse(GsonComponentSerializer.gson().serialize(component));
+        return components.length == 1 ? components[0] : new net.md_5.bungee.api.chat.TextComponent(components);
+    }
+
+    // Returns null if the component has to be converted via json
+    private static BaseComponent convert(final Component component) {
+        final BaseComponent converted;
+        if (component instanceof TextComponent) {
+            converted = new net.md_5.bungee.api.chat.TextComponent(((TextComponent) component).content());
+        } else if (component instanceof TranslatableComponent) {
+            final TranslatableComponent translatable = (TranslatableComponent) component;
+            if (translatable.fallback() != null) {
+                return null;
+            }
+
+            final List<Component> args = translatable.args();
+            final net.md_5.bungee.api.chat.TranslatableComponent convertedTranslatable = new net.md_5.bungee.api.chat.TranslatableComponent(translatable.key());
+            if (!args.isEmpty()) {
+                final List<BaseComponent> convertedArgs = new ArrayList<>(args.size());
+                for (final Component arg : args) {
+                    convertedArgs.add(toBungee(arg));
+                }
+                convertedTranslatable.setWith(convertedArgs);
+            }
+            converted = convertedTranslatable;
+        } else if (component instanceof KeybindComponent) {
+            converted = new net.md_5.bungee.api.chat.KeybindComponent(((KeybindComponent) component).keybind());
+        } else {
+            // Score, selector, nbt, and whatever else may be added in the future
+            return null;
+        }
+
+        if (!applyStyle(converted, component.style())) {
+            return null;
+        }
+
+        final List<Component> children = component.children();
+        if (!children.isEmpty()) {
+            final List<BaseComponent> extra = new ArrayList<>(children.size());
+            for (final Component child : children) {
+                extra.add(toBungee(child));
+            }
+            converted.setExtra(extra);
+        }
+        return converted;
+    }
+
+    // Returns false if the style has to be converted via json
+    private static boolean applyStyle(final BaseComponent component, final Style style) {
+        if (style.isEmpty()) {
+            return true;
+        }
+
+        final TextColor color = style.color();
+        if (color != null) {
+            final ChatColor namedColor = color instanceof NamedTextColor ? NAMED_COLORS.get(color) : null;
+            // Upper case hex like the json conversion, as Bungee compares colors by name
+            component.setColor(namedColor != null ? namedColor : ChatColor.of(String.format("#%06X", color.value())));
+        }
+
+        component.setBold(toBoolean(style.decoration(TextDecoration.BOLD)));
+        component.setItalic(toBoolean(style.decoration(TextDecoration.ITALIC)));
+        component.setUnderlined(toBoolean(style.decoration(TextDecoration.UNDERLINED)));
+        component.setStrikethrough(toBoolean(style.decoration(TextDecoration.STRIKETHROUGH)));
+        component.setObfuscated(toBoolean(style.decoration(TextDecoration.OBFUSCATED)));
+
+        final ClickEvent clickEvent = style.clickEvent();
+        if (clickEvent != null) {
+            final net.md_5.bungee.api.chat.ClickEvent.Action action = CLICK_ACTIONS.get(clickEvent.action());
+            if (action == null) {
+                return false;
+            }
+            component.setClickEvent(new net.md_5.bungee.api.chat.ClickEvent(action, clickEvent.value()));
+        }
+
+        final HoverEvent<?> hoverEvent = style.hoverEvent();
+        if (hoverEvent != null) {
+            // Items and entities are left to the json conversion
+            if (hoverEvent.action() != HoverEvent.Action.SHOW_TEXT) {
+                return false;
+            }
+            final BaseComponent text = toBungee((Component) hoverEvent.value());
+            final net.md_5.bungee.api.chat.HoverEvent convertedHoverEvent = new net.md_5.bungee.api.chat.HoverEvent(net.md_5.bungee.api.chat.HoverEvent.Action.SHOW_TEXT, new Text(new BaseComponent[]{text}));
+            // Also serialized as value for older clients, like text parsed from json
+            convertedHoverEvent.setLegacy(true);
+            component.setHoverEvent(convertedHoverEvent);
+        }
+
+        final Key font = style.font();
+        if (font != null) {
+            component.setFont(font.asString());
+        }
+        component.setInsertion(style.insertion());
+        return true;
+    }
+
+    private static Boolean toBoolean(final TextDecoration.State state) {
+        switch (state) {
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+}
@@ -18,18 +18,15 @@
 package eu.kennytv.maintenance.bungee.util;
 
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
-import eu.kennytv.maintenance.lib.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.md_5.bungee.api.chat.BaseComponent;
-import net.md_5.bungee.api.chat.TextComponent;
-import net.md_5.bungee.chat.ComponentSerializer;
 
 public final class ComponentUtil {
 
     public static BaseComponent[] toBadComponent(final Component component) {
-        return ComponentSerializer.parse(GsonComponentSerializer.gson().serialize(component));
+        return new BaseComponent[]{BungeeComponentConverter.toBungee(component)};
     }
 
     public static BaseComponent toBadComponents(final Component component) {
-        return new TextComponent(ComponentSerializer.parse(GsonComponentSerializer.gson().serialize(component)));
+        return BungeeComponentConverter.toBungee(component);
     }
 }
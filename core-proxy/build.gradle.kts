@@ -5,6 +5,8 @@ dependencies {
     compileOnly(libs.luckperms)
     compileOnly(libs.guava)
     compileOnly(libs.gson)
+    testImplementation(libs.guava)
+    testImplementation(libs.gson)
 }
 
 java {
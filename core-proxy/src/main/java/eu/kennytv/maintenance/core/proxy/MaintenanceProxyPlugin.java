@@ -17,7 +17,6 @@
  */
 package eu.kennytv.maintenance.core.proxy;
 
-import com.google.common.io.CharStreams;
 import com.google.gson.JsonObject;
 import eu.kennytv.maintenance.api.event.proxy.ServerMaintenanceChangedEvent;
 import eu.kennytv.maintenance.api.proxy.MaintenanceProxy;
@@ -26,26 +25,36 @@ import eu.kennytv.maintenance.core.MaintenancePlugin;
 import eu.kennytv.maintenance.core.proxy.command.MaintenanceProxyCommand;
 import eu.kennytv.maintenance.core.proxy.runnable.SingleMaintenanceRunnable;
 import eu.kennytv.maintenance.core.proxy.runnable.SingleMaintenanceScheduleRunnable;
+import eu.kennytv.maintenance.core.proxy.util.BulkProfileResolver;
+import eu.kennytv.maintenance.core.proxy.util.PlayerDrain;
 import eu.kennytv.maintenance.core.proxy.util.ProfileLookup;
+import eu.kennytv.maintenance.core.proxy.util.ProfileLookupCache;
 import eu.kennytv.maintenance.core.runnable.MaintenanceRunnableBase;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
+import eu.kennytv.maintenance.core.util.DummySenderInfo;
+import eu.kennytv.maintenance.core.util.HttpService;
 import eu.kennytv.maintenance.core.util.RateLimitedException;
 import eu.kennytv.maintenance.core.util.SenderInfo;
 import eu.kennytv.maintenance.core.util.ServerType;
 import eu.kennytv.maintenance.core.util.Task;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
 import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.Nullable;
 
@@ -54,8 +63,19 @@ import org.jetbrains.annotations.Nullable;
  * @since 3.0
  */
 public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implements MaintenanceProxy {
+    private static final int BULK_LOOKUP_CONCURRENCY = 2;
+    // Empty key for players being drained from the whole proxy
+    private static final String PROXY_DRAIN = "";
     private final Map<String, Task> serverTasks = new HashMap<>();
+    private final Map<String, PlayerDrain<?>> drains = new ConcurrentHashMap<>();
+    private final Map<String, AdmissionQueue> serverAdmissionQueues = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService drainExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Maintenance Player Drain");
+        thread.setDaemon(true);
+        return thread;
+    });
     protected SettingsProxy settingsProxy;
+    protected ProfileLookupCache profileCache;
 
     protected MaintenanceProxyPlugin(final String version, final ServerType serverType) {
         super(version, serverType);
@@ -63,12 +83,19 @@ public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implement
 
     @Override
     public void disable() {
+        drainExecutor.shutdownNow();
         super.disable();
-        if (settingsProxy.getMySQL() != null) {
-            settingsProxy.getMySQL().close();
+        settingsProxy.closeMySQL();
+        if (profileCache != null) {
+            profileCache.save();
         }
     }
 
+    protected void loadProfileCache() {
+        profileCache = new ProfileLookupCache(new File(getDataFolder(), "profile-cache.bin"), getLogger(), getHttpService().getExecutor());
+        profileCache.load();
+    }
+
     @Override
     public void setMaintenance(final boolean maintenance) {
         if (settingsProxy.hasMySQL()) {
@@ -105,8 +132,24 @@ public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implement
         return true;
     }
 
+    @Override
+    public void serverActions(final boolean maintenance) {
+        if (!maintenance) {
+            cancelDrain(PROXY_DRAIN);
+        }
+        super.serverActions(maintenance);
+    }
+
     public void serverActions(final Server server, final boolean maintenance) {
         if (server == null) return;
+        if (maintenance) {
+            serverAdmissionQueues.remove(server.getName());
+        } else {
+            cancelDrain(server.getName());
+            if (settingsProxy.hasAdmissionQueue()) {
+                serverAdmissionQueues.put(server.getName(), createAdmissionQueue(settingsProxy.getAdmissionQueueLoginsPerSecond(server.getName())));
+            }
+        }
 
         // Skip to the even fire for dummy servers
         if (server.isRegisteredServer()) {
@@ -138,6 +181,20 @@ public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implement
         return Collections.unmodifiableSet(settingsProxy.getMaintenanceServers());
     }
 
+    /**
+     * @param server server
+     * @return queue limiting logins after maintenance has been disabled on the server, or null if logins are not limited
+     */
+    public @Nullable AdmissionQueue getAdmissionQueue(final Server server) {
+        final AdmissionQueue admissionQueue = serverAdmissionQueues.get(server.getName());
+        if (admissionQueue == null) return null;
+        if (!admissionQueue.isActive()) {
+            serverAdmissionQueues.remove(server.getName(), admissionQueue);
+            return null;
+        }
+        return admissionQueue;
+    }
+
     public void cancelSingleTask(final Server server) {
         final Task task = serverTasks.remove(server.getName());
         if (task != null) {
@@ -189,23 +246,111 @@ public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implement
         kickPlayersFromProxy();
     }
 
+    /**
+     * Kicks or moves the given players of the whole proxy in batches, replacing a previously running drain.
+     *
+     * @param players     players to handle
+     * @param action      action for a single player, returning a future for a connection attempt or null if done immediately
+     * @param description description of the action for the log
+     * @param <T>         player type
+     */
+    protected <T> void drainPlayers(final Collection<T> players, final Function<T, @Nullable CompletableFuture<?>> action, final String description) {
+        drainPlayers(PROXY_DRAIN, players, action, description);
+    }
+
+    /**
+     * Kicks or moves the given players of a single server in batches, replacing a previously running drain of that server.
+     *
+     * @param server      server the players are handled for
+     * @param players     players to handle
+     * @param action      action for a single player, returning a future for a connection attempt or null if done immediately
+     * @param description description of the action for the log
+     * @param <T>         player type
+     */
+    protected <T> void drainPlayers(final Server server, final Collection<T> players, final Function<T, @Nullable CompletableFuture<?>> action, final String description) {
+        drainPlayers(server.getName(), players, action, description);
+    }
+
+    private <T> void drainPlayers(final String key, final Collection<T> players, final Function<T, @Nullable CompletableFuture<?>> action, final String description) {
+        cancelDrain(key);
+        if (players.isEmpty()) {
+            return;
+        }
+
+        final PlayerDrain<T> drain = new PlayerDrain<>(players, action, description, getLogger(),
+                settingsProxy.getDrainBatchSize(), settingsProxy.getDrainMaxPendingConnections());
+        drains.put(key, drain);
+        drain.start(drainExecutor).whenComplete((result, throwable) -> drains.remove(key, drain));
+    }
+
+    private void cancelDrain(final String key) {
+        final PlayerDrain<?> drain = drains.remove(key);
+        if (drain != null) {
+            drain.cancel();
+        }
+    }
+
+    /**
+     * Looks up the profile of the given name, served from the profile cache if possible.
+     *
+     * @param name player name
+     * @return future with the profile, or null if no profile exists for the name
+     */
+    protected CompletableFuture<@Nullable ProfileLookup> lookupProfile(final String name) {
+        return profileCache.lookup(name, this::doUUIDLookup).thenApply(profileLookup -> {
+            if (profileLookup == null && settingsProxy.isFallbackToOfflineUUID()) {
+                // Use offline uuid
+                return new ProfileLookup(UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8)), name);
+            }
+            return profileLookup;
+        });
+    }
+
+    /**
+     * Looks up the profiles of many names at once, using the bulk profile endpoint for names not in the profile cache.
+     *
+     * @param names player names
+     * @return resolved profiles, with offline profiles for missing names if the offline uuid fallback is enabled
+     * @throws InterruptedException if interrupted while waiting for the lookups
+     */
+    @Blocking
+    public BulkProfileResolver.Result lookupProfiles(final Collection<String> names) throws InterruptedException {
+        final BulkProfileResolver resolver = new BulkProfileResolver(getHttpService(), BulkProfileResolver.MOJANG_BULK_URL, BULK_LOOKUP_CONCURRENCY, profileCache, getLogger());
+        final BulkProfileResolver.Result result = resolver.resolve(names);
+        if (settingsProxy.isFallbackToOfflineUUID()) {
+            for (final String name : result.getMissingNames()) {
+                result.getProfiles().putIfAbsent(name.toLowerCase(Locale.ROOT), new ProfileLookup(UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8)), name));
+            }
+            result.getMissingNames().clear();
+        }
+        return result;
+    }
+
+    @Override
+    @Blocking
+    public Map<String, SenderInfo> lookupPlayers(final Collection<String> names, final Collection<String> failedNames) throws InterruptedException {
+        final BulkProfileResolver.Result result = lookupProfiles(names);
+        if (!result.getFailedNames().isEmpty()) {
+            getLogger().warning("Failed to look up the following players: " + String.join(", ", result.getFailedNames()));
+            failedNames.addAll(result.getFailedNames());
+        }
+
+        final Map<String, SenderInfo> players = new HashMap<>();
+        for (final Map.Entry<String, ProfileLookup> entry : result.getProfiles().entrySet()) {
+            players.put(entry.getKey(), new DummySenderInfo(entry.getValue().getUuid(), entry.getValue().getName()));
+        }
+        return players;
+    }
+
     @Blocking
     @Nullable
-    protected ProfileLookup doUUIDLookup(final String name) throws IOException {
-        ProfileLookup profileLookup;
+    private ProfileLookup doUUIDLookup(final String name) throws IOException {
         try {
-            profileLookup = doUUIDLookupMojangAPI(name);
+            return doUUIDLookupMojangAPI(name);
         } catch (RateLimitedException e) {
             // Use fallback API if rate limit is reached
-            profileLookup = doUUIDLookupAshconAPI(name);
-        }
-
-        if (settingsProxy.isFallbackToOfflineUUID() && profileLookup == null) {
-            // Use offline uuid
-            return new ProfileLookup(UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8)), name);
+            return doUUIDLookupAshconAPI(name);
         }
-
-        return profileLookup;
     }
 
     /**
@@ -213,27 +358,23 @@ public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implement
      */
     @Nullable
     private ProfileLookup doUUIDLookupMojangAPI(final String name) throws IOException {
-        final URL url = new URL("https://api.mojang.com/users/profiles/minecraft/" + name);
-        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-
-        int status = connection.getResponseCode();
+        final HttpService.Response response = getHttpService().get("https://api.mojang.com/users/profiles/minecraft/" + name);
+        final int status = response.getStatus();
         if (status == 429) {
             throw new RateLimitedException();
         }
-        if (status == 404) {
+        if (status == 404 || status == 204) {
             // Return null if profile not found
             return null;
         }
-
-        try (final InputStream in = connection.getInputStream()) {
-            final String output = CharStreams.toString(new InputStreamReader(in));
-            final JsonObject json = GSON.fromJson(output, JsonObject.class);
-
-            final UUID uuid = fromStringUUIDWithoutDashes(json.getAsJsonPrimitive("id").getAsString());
-            final String username = json.getAsJsonPrimitive("name").getAsString();
-            return new ProfileLookup(uuid, username);
+        if (!response.isSuccessful()) {
+            throw new IOException("Unexpected response code " + status);
         }
+
+        final JsonObject json = GSON.fromJson(response.getBodyAsString(), JsonObject.class);
+        final UUID uuid = fromStringUUIDWithoutDashes(json.getAsJsonPrimitive("id").getAsString());
+        final String username = json.getAsJsonPrimitive("name").getAsString();
+        return new ProfileLookup(uuid, username);
     }
 
     /**
@@ -241,22 +382,19 @@ public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implement
      */
     @Nullable
     private ProfileLookup doUUIDLookupAshconAPI(final String name) throws IOException {
-        final URL url = new URL("https://api.ashcon.app/mojang/v2/user/" + name);
-        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-
-        if (connection.getResponseCode() == 403) {
+        final HttpService.Response response = getHttpService().get("https://api.ashcon.app/mojang/v2/user/" + name);
+        if (response.getStatus() == 403 || response.getStatus() == 404) {
             // Return null if profile not found
             return null;
         }
-
-        try (final InputStream in = connection.getInputStream()) {
-            final String output = CharStreams.toString(new InputStreamReader(in));
-            final JsonObject json = GSON.fromJson(output, JsonObject.class);
-
-            final UUID uuid = UUID.fromString(json.getAsJsonPrimitive("uuid").getAsString());
-            final String username = json.getAsJsonPrimitive("username").getAsString();
-            return new ProfileLookup(uuid, username);
+        if (!response.isSuccessful()) {
+            throw new IOException("Unexpected response code " + response.getStatus());
         }
+
+        final JsonObject json = GSON.fromJson(response.getBodyAsString(), JsonObject.class);
+        final UUID uuid = UUID.fromString(json.getAsJsonPrimitive("uuid").getAsString());
+        final String username = json.getAsJsonPrimitive("username").getAsString();
+        return new ProfileLookup(uuid, username);
     }
 
     private UUID fromStringUUIDWithoutDashes(String undashedUUID) {
@@ -271,6 +409,10 @@ public abstract class MaintenanceProxyPlugin extends MaintenancePlugin implement
         return settingsProxy;
     }
 
+    public ProfileLookupCache getProfileCache() {
+        return profileCache;
+    }
+
     @Nullable
     public abstract String getServerNameOf(SenderInfo sender);
 
@@ -20,38 +20,75 @@ package eu.kennytv.maintenance.core.proxy;
 import eu.kennytv.maintenance.api.proxy.Server;
 import eu.kennytv.maintenance.core.Settings;
 import eu.kennytv.maintenance.core.config.ConfigSection;
+import eu.kennytv.maintenance.core.proxy.mysql.DatabaseState;
 import eu.kennytv.maintenance.core.proxy.mysql.MySQL;
+import eu.kennytv.maintenance.core.proxy.mysql.MySQLRefresher;
+import eu.kennytv.maintenance.core.util.MessageTemplate;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
 public final class SettingsProxy extends Settings {
+    // A bit more than the connection timeout
+    private static final long INITIAL_LOAD_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(6);
+    // Also catches changes made without updating the change sequence, such as by older plugin versions
+    private static final long FULL_REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    // Writes not yet saved to the database, only accessed from the refresher thread
+    private final Deque<MySQL.Update> queuedWrites = new ArrayDeque<>();
     private final MaintenanceProxyPlugin proxyPlugin;
-    private Set<String> maintenanceServers;
+    // Immutable, replaced as a whole on every change
+    private volatile Set<String> maintenanceServers;
     private List<String> fallbackServers;
     private String waitingServer;
     private boolean fallbackToOfflineUUID;
+    private int drainBatchSize;
+    private Map<String, Integer> serverAdmissionQueueLoginsPerSecond;
+    private int drainMaxPendingConnections;
 
     private Map<String, List<String>> commandsOnMaintenanceEnable;
     private Map<String, List<String>> commandsOnMaintenanceDisable;
     private String mySQLTable;
     private String serverTable;
+    private String sequenceTable;
     private String maintenanceQuery;
     private String serverQuery;
+    private String sequenceQuery;
+    private String sequenceUpdate;
     private MySQL mySQL;
-
-    private long millisecondsToCheck;
-    private long lastMySQLCheck;
-    private long lastServerCheck;
+    private MySQLRefresher mySQLRefresher;
+    private Path databaseStatePath;
+    // Only accessed from the refresher thread
+    private DatabaseState savedDatabaseState;
+    private boolean writeFailureLogged;
+    private boolean tablesCreated;
+    private long loadedSequence;
+    private long lastFullRefreshMillis;
+    private long refreshIntervalMillis;
+    private volatile long minRefreshIntervalMillis;
+    private volatile long maxRefreshIntervalMillis;
+    private volatile boolean fullRefreshPending;
+    private boolean initialStateLoaded;
 
     public SettingsProxy(final MaintenanceProxyPlugin plugin) {
         super(plugin);
@@ -74,16 +111,100 @@ public final class SettingsProxy extends Settings {
                 section.getString("database"),
                 section.getBoolean("use-ssl", true));
 
-        // Varchar as the value regarding the possibility of saving stuff like the motd as well in future updates
         mySQLTable = section.getString("table", "maintenance_settings");
         serverTable = section.getString("servertable", "maintenance_servers");
-        mySQL.executeUpdate("CREATE TABLE IF NOT EXISTS " + mySQLTable + " (setting VARCHAR(16) PRIMARY KEY, value VARCHAR(255))");
-        mySQL.executeUpdate("CREATE TABLE IF NOT EXISTS " + serverTable + " (server VARCHAR(64) PRIMARY KEY)");
+        sequenceTable = section.getString("sequencetable", "maintenance_sequence");
         maintenanceQuery = "SELECT * FROM " + mySQLTable + " WHERE setting = ?";
         serverQuery = "SELECT * FROM " + serverTable;
+        sequenceQuery = "SELECT sequence FROM " + sequenceTable + " WHERE id = 1";
+        sequenceUpdate = "INSERT INTO " + sequenceTable + " (id, sequence) VALUES (1, 1) ON DUPLICATE KEY UPDATE sequence = sequence + 1";
+        databaseStatePath = new File(plugin.getDataFolder(), "database-state.json").toPath();
+        mySQLRefresher = new MySQLRefresher(plugin.getLogger());
         plugin.getLogger().info("Done!");
     }
 
+    /**
+     * Loads the state from the database, waiting at most a few seconds, or from the local state file if the database cannot be reached.
+     */
+    private void loadInitialDatabaseState() {
+        DatabaseState state = null;
+        final Future<DatabaseState> future = mySQLRefresher.submit(this::loadStateFromSQL);
+        try {
+            state = future.get(INITIAL_LOAD_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            // Published by the next refresh once loaded
+            plugin.getLogger().warning("Timed out loading the maintenance state from the database!");
+        } catch (final ExecutionException e) {
+            plugin.getLogger().log(Level.SEVERE, "Error while loading the maintenance state from the database", e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (state == null) {
+            // The sequence may already have been loaded by the timed out task, without its state being used
+            fullRefreshPending = true;
+            try {
+                state = DatabaseState.read(databaseStatePath);
+            } catch (final IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Error while reading the last known database state", e);
+            }
+
+            if (state != null) {
+                plugin.getLogger().warning("Using the last known maintenance state until the database can be reached");
+            } else {
+                plugin.getLogger().warning("No last known database state found, using the maintenance state of the config until the database can be reached");
+                final List<String> list = config.getStringList("proxied-maintenance-servers");
+                state = new DatabaseState(maintenance, list == null ? Collections.emptySet() : new HashSet<>(list));
+            }
+        }
+
+        maintenance = state.isMaintenance();
+        maintenanceServers = state.getMaintenanceServers();
+    }
+
+    /**
+     * Loads the state from the database and saves it to the local state file if changed.
+     * Only called from the refresher thread.
+     *
+     * @return loaded state, or null if the database could not be reached
+     */
+    @Nullable
+    private DatabaseState loadStateFromSQL() {
+        if (!tablesCreated) {
+            // Varchar as the value regarding the possibility of saving stuff like the motd as well in future updates
+            if (!mySQL.executeUpdate("CREATE TABLE IF NOT EXISTS " + mySQLTable + " (setting VARCHAR(16) PRIMARY KEY, value VARCHAR(255))")
+                    || !mySQL.executeUpdate("CREATE TABLE IF NOT EXISTS " + serverTable + " (server VARCHAR(64) PRIMARY KEY)")
+                    || !mySQL.executeUpdate("CREATE TABLE IF NOT EXISTS " + sequenceTable + " (id TINYINT PRIMARY KEY, sequence BIGINT NOT NULL)")) {
+                return null;
+            }
+            tablesCreated = true;
+        }
+
+        // Loaded first, so that changes made while loading the rest are seen by the next refresh
+        final Long sequence = loadSequence();
+        if (sequence == null) return null;
+
+        final Boolean databaseMaintenance = loadMaintenance();
+        if (databaseMaintenance == null) return null;
+
+        final Set<String> databaseServers = loadMaintenanceServersFromSQL();
+        if (databaseServers == null) return null;
+
+        loadedSequence = sequence;
+        lastFullRefreshMillis = System.currentTimeMillis();
+
+        final DatabaseState state = new DatabaseState(databaseMaintenance, databaseServers);
+        if (!state.equals(savedDatabaseState)) {
+            try {
+                state.write(databaseStatePath);
+                savedDatabaseState = state;
+            } catch (final IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Error while saving the last known database state", e);
+            }
+        }
+        return state;
+    }
+
     @Override
     protected void loadExtraSettings() {
         // Open database connection if enabled and not already done
@@ -105,6 +226,16 @@ public final class SettingsProxy extends Settings {
             waitingServer = null;
         }
         fallbackToOfflineUUID = config.getBoolean("fallback-to-offline-uuid", false);
+        drainBatchSize = Math.max(1, config.getInt("player-drain.batch-size", 50));
+        drainMaxPendingConnections = Math.max(1, config.getInt("player-drain.max-pending-connections", 100));
+
+        serverAdmissionQueueLoginsPerSecond = new HashMap<>();
+        final ConfigSection admissionQueueServersSection = config.getSection("admission-queue.servers");
+        if (admissionQueueServersSection != null) {
+            for (final String key : admissionQueueServersSection.getKeys()) {
+                serverAdmissionQueueLoginsPerSecond.put(key.toLowerCase(Locale.ROOT), Math.max(1, admissionQueueServersSection.getInt(key)));
+            }
+        }
 
         commandsOnMaintenanceEnable = new HashMap<>();
         final ConfigSection enableCommandsSection = config.getSection("commands-on-single-maintenance-enable");
@@ -119,116 +250,242 @@ public final class SettingsProxy extends Settings {
         }
 
         if (hasMySQL()) {
-            maintenance = loadMaintenance();
-            maintenanceServers = loadMaintenanceServersFromSQL();
+            // On reloads, the state is kept up to date by the refresher
+            if (!initialStateLoaded) {
+                loadInitialDatabaseState();
+                initialStateLoaded = true;
+            }
 
             final long configValue = config.getInt("mysql.update-interval");
             // Even if set to 0, only check every 500 millis
-            millisecondsToCheck = configValue > 0 ? configValue * 1000 : 500;
-            lastMySQLCheck = System.currentTimeMillis();
-            lastServerCheck = System.currentTimeMillis();
+            minRefreshIntervalMillis = configValue > 0 ? configValue * 1000 : 500;
+            maxRefreshIntervalMillis = Math.max(minRefreshIntervalMillis, config.getInt("mysql.max-update-interval", 60) * 1000L);
+            mySQLRefresher.start(this::refreshFromSQL, minRefreshIntervalMillis);
         } else {
             final List<String> list = config.getStringList("proxied-maintenance-servers");
-            maintenanceServers = list == null ? new HashSet<>() : new HashSet<>(list);
+            maintenanceServers = list == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(list));
         }
     }
 
-    @Override
-    public boolean isMaintenance() {
-        if (hasMySQL() && System.currentTimeMillis() - lastMySQLCheck > millisecondsToCheck) {
-            final boolean databaseValue = loadMaintenance();
-            if (databaseValue != maintenance) {
-                maintenance = databaseValue;
-                plugin.serverActions(maintenance);
+    /**
+     * Loads the current state from the database if it has changed, and runs the actions for changed values.
+     * Only called from the refresher thread.
+     *
+     * @return milliseconds until the next refresh
+     */
+    private long refreshFromSQL() {
+        final long minIntervalMillis = minRefreshIntervalMillis;
+        // The intervals may have been changed by a reload
+        refreshIntervalMillis = Math.max(minIntervalMillis, Math.min(refreshIntervalMillis, maxRefreshIntervalMillis));
+
+        // The loaded state would not include local changes that could not be saved yet
+        if (!executeQueuedWrites()) return refreshIntervalMillis;
+
+        // Only check the change sequence unless it has moved, backing off while nothing changes
+        if (!fullRefreshPending && tablesCreated && System.currentTimeMillis() - lastFullRefreshMillis < FULL_REFRESH_INTERVAL_MILLIS) {
+            final Long sequence = loadSequence();
+            // Keep the last known state while the database cannot be reached
+            if (sequence == null) return refreshIntervalMillis;
+            if (sequence == loadedSequence) {
+                refreshIntervalMillis = Math.min(refreshIntervalMillis * 2, maxRefreshIntervalMillis);
+                return refreshIntervalMillis;
             }
-            lastMySQLCheck = System.currentTimeMillis();
         }
-        return maintenance;
+
+        final long previousSequence = loadedSequence;
+        final DatabaseState state = loadStateFromSQL();
+        if (state == null) return refreshIntervalMillis;
+
+        if (loadedSequence != previousSequence) {
+            refreshIntervalMillis = minIntervalMillis;
+        }
+        fullRefreshPending = false;
+        applyDatabaseState(state);
+        return refreshIntervalMillis;
     }
 
-    public boolean isMaintenance(final String serverName) {
-        if (hasMySQL() && System.currentTimeMillis() - lastServerCheck > millisecondsToCheck) {
-            final Set<String> databaseValue = loadMaintenanceServersFromSQL();
-            if (!maintenanceServers.equals(databaseValue)) {
-                // Enable maintenance on yet unlisted servers
-                for (final String s : databaseValue) {
-                    if (!maintenanceServers.contains(s)) {
-                        proxyPlugin.serverActions(proxyPlugin.getServer(s), true);
-                    }
-                }
-                // Disable maintenance on now unlisted servers
-                for (final String s : maintenanceServers) {
-                    if (!databaseValue.contains(s)) {
-                        proxyPlugin.serverActions(proxyPlugin.getServer(s), false);
-                    }
-                }
-                maintenanceServers = databaseValue;
+    private void applyDatabaseState(final DatabaseState state) {
+        final boolean databaseMaintenance = state.isMaintenance();
+        final Set<String> databaseServers = state.getMaintenanceServers();
+        final boolean maintenanceChanged;
+        final Set<String> previousServers;
+        synchronized (this) {
+            // Local changes not yet written to the database are missing in the loaded values
+            if (pendingWrites.get() != 0) return;
+
+            maintenanceChanged = databaseMaintenance != maintenance;
+            if (maintenanceChanged) {
+                setMaintenance(databaseMaintenance);
+            }
+
+            previousServers = maintenanceServers;
+            if (!previousServers.equals(databaseServers)) {
+                maintenanceServers = databaseServers;
             }
-            lastServerCheck = System.currentTimeMillis();
         }
+
+        if (maintenanceChanged) {
+            plugin.serverActions(databaseMaintenance);
+        }
+        if (previousServers.equals(databaseServers)) return;
+
+        // Enable maintenance on yet unlisted servers
+        for (final String s : databaseServers) {
+            if (!previousServers.contains(s)) {
+                proxyPlugin.serverActions(proxyPlugin.getServer(s), true);
+            }
+        }
+        // Disable maintenance on now unlisted servers
+        for (final String s : previousServers) {
+            if (!databaseServers.contains(s)) {
+                proxyPlugin.serverActions(proxyPlugin.getServer(s), false);
+            }
+        }
+    }
+
+    public boolean isMaintenance(final String serverName) {
         return maintenanceServers.contains(serverName);
     }
 
     public Component getServerKickMessage(final String server) {
-        String message = getLanguageStringOrNull("singleMaintenanceKicks." + server, "%SERVER%", server);
-        if (message == null) {
-            message = getLanguageString("singleMaintenanceKick", "%SERVER%", server);
+        MessageTemplate template = getMessageTemplateOrNull("singleMaintenanceKicks." + server);
+        if (template == null) {
+            template = getMessageTemplate("singleMaintenanceKick");
         }
-        return parse(plugin.replacePingVariables(message));
+        return renderKickMessage(template, server);
     }
 
     // Full = being kicked from the proxy, not just a proxied server
     public Component getFullServerKickMessage(final String server) {
-        String message = getLanguageStringOrNull("singleMaintenanceKicksComplete." + server, "%SERVER%", server);
-        if (message == null) {
-            message = getLanguageString("singleMaintenanceKickComplete", "%SERVER%", server);
+        MessageTemplate template = getMessageTemplateOrNull("singleMaintenanceKicksComplete." + server);
+        if (template == null) {
+            template = getMessageTemplate("singleMaintenanceKickComplete");
         }
-        return parse(plugin.replacePingVariables(message));
+        return renderKickMessage(template, server);
+    }
+
+    private Component renderKickMessage(final MessageTemplate template, final String server) {
+        if (!template.hasPlaceholders()) {
+            return template.getComponent(this::parse);
+        }
+        return parseRendered(template.render(placeholder -> placeholder.equals("%SERVER%") ? server : plugin.getPingVariable(placeholder)));
     }
 
     public boolean hasMySQL() {
         return mySQL != null;
     }
 
-    void setMaintenanceToSQL(final boolean maintenance) {
-        plugin.async(() -> {
-            final String s = String.valueOf(maintenance);
-            mySQL.executeUpdate("INSERT INTO " + mySQLTable + " (setting, value) VALUES (?, ?) ON DUPLICATE KEY UPDATE value = ?", "maintenance", s, s);
-            lastMySQLCheck = System.currentTimeMillis();
-        });
+    @Override
+    protected boolean hasExternalMaintenanceState() {
+        return initialStateLoaded;
+    }
+
+    synchronized void setMaintenanceToSQL(final boolean maintenance) {
+        final String s = String.valueOf(maintenance);
+        executeWrite(MySQL.update("INSERT INTO " + mySQLTable + " (setting, value) VALUES (?, ?) ON DUPLICATE KEY UPDATE value = ?", "maintenance", s, s));
     }
 
     boolean addMaintenanceServer(final String server) {
-        if (hasMySQL()) {
-            maintenanceServers = loadMaintenanceServersFromSQL();
-            if (!maintenanceServers.add(server)) return false;
-            plugin.async(() -> mySQL.executeUpdate("INSERT INTO " + serverTable + " (server) VALUES (?)", server));
-            lastServerCheck = System.currentTimeMillis();
-        } else {
-            if (!maintenanceServers.add(server)) return false;
+        synchronized (this) {
+            // Based on the published state, the refresher reconciles it with changes made by other proxies
+            if (maintenanceServers.contains(server)) return false;
+
+            final Set<String> servers = new HashSet<>(maintenanceServers);
+            servers.add(server);
+            maintenanceServers = Collections.unmodifiableSet(servers);
+            if (hasMySQL()) {
+                executeWrite(MySQL.update("INSERT INTO " + serverTable + " (server) VALUES (?) ON DUPLICATE KEY UPDATE server = server", server));
+            }
+        }
+        if (!hasMySQL()) {
             saveServersToConfig();
         }
         return true;
     }
 
     boolean removeMaintenanceServer(final String server) {
-        if (hasMySQL()) {
-            maintenanceServers = loadMaintenanceServersFromSQL();
-            if (!maintenanceServers.remove(server)) return false;
+        synchronized (this) {
+            if (!maintenanceServers.contains(server)) return false;
+
+            final Set<String> servers = new HashSet<>(maintenanceServers);
+            servers.remove(server);
+            maintenanceServers = Collections.unmodifiableSet(servers);
+            if (hasMySQL()) {
+                executeWrite(MySQL.update("DELETE FROM " + serverTable + " WHERE server = ?", server));
+            }
+        }
+        if (!hasMySQL()) {
+            saveServersToConfig();
+        }
+        return true;
+    }
 
-            plugin.async(() -> mySQL.executeUpdate("DELETE FROM " + serverTable + " WHERE server = ?", server));
-            lastServerCheck = System.currentTimeMillis();
-        } else {
-            if (!maintenanceServers.remove(server)) return false;
+    /**
+     * Executes the database write together with a change sequence bump on the refresher thread, so that later refreshes always include it.
+     * If the database cannot be reached, the write is retried with the next refreshes.
+     */
+    private void executeWrite(final MySQL.Update update) {
+        pendingWrites.incrementAndGet();
+        mySQLRefresher.execute(() -> {
+            queuedWrites.add(update);
+            executeQueuedWrites();
+        });
+    }
 
-            saveServersToConfig();
+    /**
+     * Executes the queued writes in order, keeping them counted as pending until saved so that refreshes do not revert them.
+     * Only called from the refresher thread.
+     *
+     * @return whether all queued writes have been saved
+     */
+    private boolean executeQueuedWrites() {
+        MySQL.Update update;
+        while ((update = queuedWrites.peek()) != null) {
+            if (!mySQL.executeTransaction(update, MySQL.update(sequenceUpdate))) {
+                if (!writeFailureLogged) {
+                    plugin.getLogger().warning("Could not save the change to the database, retrying once it can be reached again!");
+                    writeFailureLogged = true;
+                }
+                return false;
+            }
+
+            queuedWrites.poll();
+            pendingWrites.decrementAndGet();
+        }
+
+        if (writeFailureLogged) {
+            plugin.getLogger().info("Saved the changes made while the database could not be reached");
+            writeFailureLogged = false;
         }
         return true;
     }
 
+    /**
+     * @return change sequence from the database, or null if the database could not be reached
+     */
+    @Nullable
+    private Long loadSequence() {
+        final long[] sequence = {0};
+        final boolean loaded = mySQL.executeQuery(sequenceQuery, rs -> {
+            try {
+                if (rs.next()) {
+                    sequence[0] = rs.getLong("sequence");
+                }
+            } catch (final SQLException e) {
+                plugin.getLogger().warning("An error occured while trying to get the change sequence from the database!");
+                e.printStackTrace();
+            }
+        });
+        return loaded ? sequence[0] : null;
+    }
+
+    /**
+     * @return maintenance servers from the database, or null if the database could not be reached
+     */
+    @Nullable
     private Set<String> loadMaintenanceServersFromSQL() {
         final Set<String> maintenanceServers = new HashSet<>();
-        mySQL.executeQuery(serverQuery, rs -> {
+        final boolean loaded = mySQL.executeQuery(serverQuery, rs -> {
             try {
                 while (rs.next()) {
                     maintenanceServers.add(rs.getString("server"));
@@ -238,12 +495,16 @@ public final class SettingsProxy extends Settings {
                 e.printStackTrace();
             }
         });
-        return maintenanceServers;
+        return loaded ? maintenanceServers : null;
     }
 
-    private boolean loadMaintenance() {
+    /**
+     * @return maintenance state from the database, or null if the database could not be reached
+     */
+    @Nullable
+    private Boolean loadMaintenance() {
         final boolean[] databaseValue = {false};
-        mySQL.executeQuery(maintenanceQuery, rs -> {
+        final boolean loaded = mySQL.executeQuery(maintenanceQuery, rs -> {
             try {
                 if (rs.next()) {
                     databaseValue[0] = Boolean.parseBoolean(rs.getString("value"));
@@ -253,7 +514,7 @@ public final class SettingsProxy extends Settings {
                 e.printStackTrace();
             }
         }, "maintenance");
-        return databaseValue[0];
+        return loaded ? databaseValue[0] : null;
     }
 
     private void saveServersToConfig() {
@@ -285,6 +546,29 @@ public final class SettingsProxy extends Settings {
         return fallbackToOfflineUUID;
     }
 
+    /**
+     * @return maximum number of players kicked or moved per batch
+     */
+    public int getDrainBatchSize() {
+        return drainBatchSize;
+    }
+
+    /**
+     * @return maximum number of players being connected to another server at the same time while draining
+     */
+    public int getDrainMaxPendingConnections() {
+        return drainMaxPendingConnections;
+    }
+
+    /**
+     * @param server server name
+     * @return maximum number of players let in per second after maintenance has been disabled on the server
+     */
+    public int getAdmissionQueueLoginsPerSecond(final String server) {
+        final Integer loginsPerSecond = serverAdmissionQueueLoginsPerSecond.get(server.toLowerCase(Locale.ROOT));
+        return loginsPerSecond != null ? loginsPerSecond : getSnapshot().getAdmissionQueueLoginsPerSecond();
+    }
+
     public List<String> getCommandsOnMaintenanceEnable(final Server server) {
         final List<String> enableCommands = commandsOnMaintenanceEnable.getOrDefault("all", new ArrayList<>());
         final List<String> serverEnableCommands = commandsOnMaintenanceEnable.get(server.getName().toLowerCase(Locale.ROOT));
@@ -303,8 +587,15 @@ public final class SettingsProxy extends Settings {
         return disableCommands;
     }
 
-    @Nullable
-    MySQL getMySQL() {
-        return mySQL;
+    void closeMySQL() {
+        if (mySQL != null) {
+            // Let pending writes finish before closing the pool
+            mySQLRefresher.shutdown();
+            // No longer modified by the refresher thread
+            if (!queuedWrites.isEmpty()) {
+                plugin.getLogger().warning(queuedWrites.size() + " change(s) could not be saved to the database!");
+            }
+            mySQL.close();
+        }
     }
 }
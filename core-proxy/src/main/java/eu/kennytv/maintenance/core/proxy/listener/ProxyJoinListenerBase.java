@@ -23,7 +23,9 @@ import eu.kennytv.maintenance.core.proxy.MaintenanceProxyPlugin;
 import eu.kennytv.maintenance.core.proxy.SettingsProxy;
 import eu.kennytv.maintenance.core.proxy.util.ProxySenderInfo;
 import eu.kennytv.maintenance.core.proxy.util.ServerConnectResult;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
 import eu.kennytv.maintenance.core.util.SenderInfo;
+import java.util.UUID;
 import org.jetbrains.annotations.Nullable;
 
 public abstract class ProxyJoinListenerBase extends JoinListenerBase {
@@ -69,7 +71,10 @@ public abstract class ProxyJoinListenerBase extends JoinListenerBase {
         }
 
         // Single server maintenance
-        if (!settings.isMaintenance(target.getName())) return ALLOWED;
+        if (!settings.isMaintenance(target.getName())) {
+            final ServerConnectResult queueResult = checkWaitingServerAdmission(sender, target);
+            return queueResult != null ? queueResult : checkServerAdmission(sender, target, normalServerConnect);
+        }
         if (sender.hasMaintenancePermission("bypass") || settings.isWhitelisted(sender.getUuid())
                 || sender.hasMaintenancePermission("singleserver.bypass." + target.getName().toLowerCase())) {
             return ALLOWED;
@@ -99,6 +104,66 @@ public abstract class ProxyJoinListenerBase extends JoinListenerBase {
         }
     }
 
+    @Override
+    protected boolean shouldKickEarly(@Nullable final UUID uuid, final String name) {
+        // Whether the player can be sent to the waiting server is only known after logging in
+        return settings.getWaitingServer() == null && super.shouldKickEarly(uuid, name);
+    }
+
+    /**
+     * To be called on the initial proxy join instead of {@link #checkAdmission(SenderInfo)} if there is no waiting server to hold the player on.
+     *
+     * @param sender joining player
+     * @return queue ticket of the player, or null if they may join or are held on the waiting server instead
+     */
+    @Nullable
+    protected AdmissionQueue.Ticket checkProxyAdmission(final ProxySenderInfo sender) {
+        return shouldConnectToWaitingServer(sender) == null ? checkAdmission(sender) : null;
+    }
+
+    // Holds players joining after global maintenance has been disabled on the waiting server until they are let in
+    @Nullable
+    private ServerConnectResult checkWaitingServerAdmission(final ProxySenderInfo sender, final Server target) {
+        final AdmissionQueue queue = plugin.getAdmissionQueue();
+        if (queue == null) return null;
+
+        final Server waitingServer = shouldConnectToWaitingServer(sender);
+        if (waitingServer == null || target.getName().equals(waitingServer.getName())) return null;
+
+        // Only initial joins and players held on the waiting server go through the queue
+        final String currentServer = plugin.getServerNameOf(sender);
+        final boolean onWaitingServer = waitingServer.getName().equals(currentServer);
+        if (currentServer != null && !onWaitingServer) return null;
+
+        final AdmissionQueue.Ticket ticket = checkAdmission(sender, queue);
+        if (ticket == null) return null;
+
+        sender.send(getAdmissionMessage(ticket, false));
+        return onWaitingServer ? DENIED : new ServerConnectResult(waitingServer);
+    }
+
+    private ServerConnectResult checkServerAdmission(final ProxySenderInfo sender, final Server target, final boolean normalServerConnect) {
+        final AdmissionQueue queue = plugin.getAdmissionQueue(target);
+        if (queue == null || sender.hasMaintenancePermission("singleserver.bypass." + target.getName().toLowerCase())) return ALLOWED;
+
+        final AdmissionQueue.Ticket ticket = checkAdmission(sender, queue);
+        if (ticket == null) return ALLOWED;
+
+        if (normalServerConnect) {
+            sender.send(getAdmissionMessage(ticket, false));
+            return DENIED;
+        }
+
+        final Server fallback = settings.getFallbackServer();
+        if (fallback == null || fallback.getName().equals(target.getName()) || !sender.canAccess(fallback)) {
+            sender.disconnect(getAdmissionMessage(ticket, true));
+            return DENIED;
+        }
+
+        sender.send(getAdmissionMessage(ticket, false));
+        return new ServerConnectResult(fallback);
+    }
+
     /**
      * To be called after {@link #shouldKick(SenderInfo, boolean)} to get the waiting server if present.
      * Does not do any permission checks, they should be done separately!
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.mysql;
+
+/**
+ * Stops database requests for a back-off window after repeated failures, so that an unreachable database
+ * does not block every request until the connection timeout.
+ * <p>
+ * Once the window has passed, a single request is let through to check whether the database is reachable again.
+ * If it fails as well, the window is doubled up to the maximum.
+ */
+public final class CircuitBreaker {
+    private final int failureThreshold;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private int failures;
+    private long backoffMillis;
+    private long openUntilMillis;
+
+    public CircuitBreaker(final int failureThreshold, final long initialBackoffMillis, final long maxBackoffMillis) {
+        this.failureThreshold = failureThreshold;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * @return true if the request may be made, false if the database should not be tried right now
+     */
+    public boolean allowRequest() {
+        return allowRequest(System.currentTimeMillis());
+    }
+
+    synchronized boolean allowRequest(final long nowMillis) {
+        if (failures < failureThreshold) {
+            return true;
+        }
+        if (nowMillis < openUntilMillis) {
+            return false;
+        }
+
+        // Let only this request through until it has completed
+        openUntilMillis = nowMillis + backoffMillis;
+        return true;
+    }
+
+    /**
+     * @return true if requests had been stopped before
+     */
+    public synchronized boolean recordSuccess() {
+        final boolean wasOpen = failures >= failureThreshold;
+        failures = 0;
+        return wasOpen;
+    }
+
+    /**
+     * @return true if requests are stopped from now on
+     */
+    public boolean recordFailure() {
+        return recordFailure(System.currentTimeMillis());
+    }
+
+    synchronized boolean recordFailure(final long nowMillis) {
+        if (++failures < failureThreshold) {
+            return false;
+        }
+
+        final boolean opened = failures == failureThreshold;
+        backoffMillis = opened ? initialBackoffMillis : Math.min(backoffMillis * 2, maxBackoffMillis);
+        openUntilMillis = nowMillis + backoffMillis;
+        return opened;
+    }
+
+    /**
+     * @return current back-off window in milliseconds
+     */
+    public synchronized long getBackoffMillis() {
+        return backoffMillis;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.mysql;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import eu.kennytv.maintenance.core.MaintenancePlugin;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintenance state loaded from the database, also kept in a local file to be used while the database cannot be reached.
+ */
+public final class DatabaseState {
+    private final boolean maintenance;
+    private final Set<String> maintenanceServers;
+
+    public DatabaseState(final boolean maintenance, final Set<String> maintenanceServers) {
+        this.maintenance = maintenance;
+        this.maintenanceServers = Collections.unmodifiableSet(maintenanceServers);
+    }
+
+    /**
+     * @param path path of the state file
+     * @return state saved in the file, or null if there is none
+     * @throws IOException if reading the file fails
+     */
+    public static @Nullable DatabaseState read(final Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            final JsonObject object = MaintenancePlugin.GSON.fromJson(reader, JsonObject.class);
+            final Set<String> servers = new HashSet<>();
+            for (final JsonElement server : object.getAsJsonArray("maintenance-servers")) {
+                servers.add(server.getAsString());
+            }
+            return new DatabaseState(object.get("maintenance").getAsBoolean(), servers);
+        } catch (final JsonParseException | IllegalStateException | NullPointerException e) {
+            throw new IOException("Malformed state file", e);
+        }
+    }
+
+    /**
+     * Atomically replaces the state file with this state.
+     *
+     * @param path path of the state file
+     * @throws IOException if writing the file fails
+     */
+    public void write(final Path path) throws IOException {
+        final JsonObject object = new JsonObject();
+        object.addProperty("maintenance", maintenance);
+        final JsonArray servers = new JsonArray();
+        for (final String server : maintenanceServers) {
+            servers.add(server);
+        }
+        object.add("maintenance-servers", servers);
+
+        final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (final Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            MaintenancePlugin.GSON.toJson(object, writer);
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public boolean isMaintenance() {
+        return maintenance;
+    }
+
+    public Set<String> getMaintenanceServers() {
+        return maintenanceServers;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final DatabaseState that = (DatabaseState) o;
+        return maintenance == that.maintenance && maintenanceServers.equals(that.maintenanceServers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Boolean.hashCode(maintenance) + maintenanceServers.hashCode();
+    }
+}
@@ -25,11 +25,20 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Database access guarded by a {@link CircuitBreaker}. While the database is unreachable, requests fail right away
+ * instead of waiting for the connection timeout, so that callers can keep using the last known state.
+ */
 public final class MySQL {
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(FAILURE_THRESHOLD, INITIAL_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS);
     private final Logger logger;
     private final HikariDataSource hikariDataSource;
 
@@ -38,6 +47,9 @@ public final class MySQL {
 
         final HikariConfig hikariConfig = new HikariConfig();
         hikariConfig.setMaximumPoolSize(10);
+        hikariConfig.setConnectionTimeout(TimeUnit.SECONDS.toMillis(5));
+        // Don't block or fail startup if the database is not reachable yet
+        hikariConfig.setInitializationFailTimeout(-1);
         hikariConfig.addDataSourceProperty("serverName", hostname);
         hikariConfig.addDataSourceProperty("user", username);
         hikariConfig.addDataSourceProperty("password", password);
@@ -65,7 +77,12 @@ public final class MySQL {
         throw new IllegalArgumentException("No sql driver class found");
     }
 
-    public void executeUpdate(final String query, final Consumer<Integer> callback, final Object... objects) {
+    /**
+     * @return true if the update has been executed, false if it failed or the database is currently not tried
+     */
+    public boolean executeUpdate(final String query, final Consumer<Integer> callback, final Object... objects) {
+        if (!circuitBreaker.allowRequest()) return false;
+
         try (final Connection connection = hikariDataSource.getConnection()) {
             try (final PreparedStatement preparedStatement = connection.prepareStatement(query)) {
                 int current = 1;
@@ -79,10 +96,19 @@ public final class MySQL {
         } catch (final SQLException e) {
             logger.log(Level.SEVERE, "Error while executing update method: " + query);
             e.printStackTrace();
+            recordFailure();
+            return false;
         }
+        recordSuccess();
+        return true;
     }
 
-    public void executeQuery(final String query, final Consumer<ResultSet> callback, final Object... objects) {
+    /**
+     * @return true if the query has been executed, false if it failed or the database is currently not tried
+     */
+    public boolean executeQuery(final String query, final Consumer<ResultSet> callback, final Object... objects) {
+        if (!circuitBreaker.allowRequest()) return false;
+
         try (final Connection connection = hikariDataSource.getConnection()) {
             try (final PreparedStatement preparedStatement = connection.prepareStatement(query)) {
                 int current = 1;
@@ -98,15 +124,88 @@ public final class MySQL {
         } catch (final SQLException e) {
             logger.log(Level.SEVERE, "Error while executing query method: " + query);
             e.printStackTrace();
+            recordFailure();
+            return false;
         }
+        recordSuccess();
+        return true;
     }
 
-    public void executeUpdate(final String query, final Object... objects) {
-        executeUpdate(query, res -> {
+    public boolean executeUpdate(final String query, final Object... objects) {
+        return executeUpdate(query, res -> {
         }, objects);
     }
 
+    /**
+     * Executes all updates in a single transaction.
+     *
+     * @return true if the transaction has been committed, false if it failed or the database is currently not tried
+     */
+    public boolean executeTransaction(final Update... updates) {
+        if (!circuitBreaker.allowRequest()) return false;
+
+        try (final Connection connection = hikariDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (final Update update : updates) {
+                    try (final PreparedStatement preparedStatement = connection.prepareStatement(update.query)) {
+                        int current = 1;
+                        for (final Object object : update.objects) {
+                            preparedStatement.setObject(current, object);
+                            current++;
+                        }
+                        preparedStatement.executeUpdate();
+                    }
+                }
+                connection.commit();
+            } catch (final SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (final SQLException rollbackException) {
+                    e.addSuppressed(rollbackException);
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (final SQLException e) {
+            logger.log(Level.SEVERE, "Error while executing transaction: " + updates[0].query);
+            e.printStackTrace();
+            recordFailure();
+            return false;
+        }
+        recordSuccess();
+        return true;
+    }
+
+    private void recordSuccess() {
+        if (circuitBreaker.recordSuccess()) {
+            logger.info("Database connection restored!");
+        }
+    }
+
+    private void recordFailure() {
+        if (circuitBreaker.recordFailure()) {
+            logger.warning("Database requests failed " + FAILURE_THRESHOLD + " times in a row, using the last known state and retrying in "
+                    + TimeUnit.MILLISECONDS.toSeconds(circuitBreaker.getBackoffMillis()) + " seconds");
+        }
+    }
+
     public void close() {
         hikariDataSource.close();
     }
+
+    public static Update update(final String query, final Object... objects) {
+        return new Update(query, objects);
+    }
+
+    public static final class Update {
+        private final String query;
+        private final Object[] objects;
+
+        private Update(final String query, final Object[] objects) {
+            this.query = query;
+            this.objects = objects;
+        }
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.mysql;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single database thread, periodically running the state refresh and executing database writes in submission order.
+ * <p>
+ * Since reads and writes share the thread, a refresh never reads a state older than a previously submitted write.
+ */
+public final class MySQLRefresher {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Maintenance MySQL Refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Logger logger;
+    private RefreshTask refreshTask;
+
+    public MySQLRefresher(final Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Schedules the refresh task, replacing a previously scheduled one.
+     *
+     * @param refresh            task loading and publishing the database state, returning the delay until the next refresh in milliseconds
+     * @param initialDelayMillis delay until the first refresh
+     */
+    public synchronized void start(final LongSupplier refresh, final long initialDelayMillis) {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+        }
+        refreshTask = new RefreshTask(refresh, initialDelayMillis);
+        refreshTask.schedule(initialDelayMillis);
+    }
+
+    /**
+     * Executes the given database operation on the refresher thread.
+     *
+     * @param runnable database operation
+     */
+    public void execute(final Runnable runnable) {
+        executor.execute(wrap(runnable));
+    }
+
+    /**
+     * Executes the given database operation on the refresher thread.
+     *
+     * @param callable database operation
+     * @param <T>      result type
+     * @return future completed with the result of the operation
+     */
+    public <T> Future<T> submit(final Callable<T> callable) {
+        return executor.submit(callable);
+    }
+
+    /**
+     * Stops the refresh task and waits a few seconds for pending writes to complete.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            // Delayed tasks would otherwise still run after shutting down
+            if (refreshTask != null) {
+                refreshTask.cancel();
+            }
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for pending database operations to complete");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class RefreshTask implements Runnable {
+        private final LongSupplier refresh;
+        private long delayMillis;
+        private ScheduledFuture<?> future;
+        private boolean cancelled;
+
+        private RefreshTask(final LongSupplier refresh, final long delayMillis) {
+            this.refresh = refresh;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void run() {
+            try {
+                delayMillis = refresh.getAsLong();
+            } catch (final Throwable t) {
+                // Try again with the previous delay
+                logger.log(Level.SEVERE, "Error while executing database task", t);
+            }
+            schedule(delayMillis);
+        }
+
+        private void schedule(final long delayMillis) {
+            synchronized (MySQLRefresher.this) {
+                if (!cancelled && !executor.isShutdown()) {
+                    future = executor.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private Runnable wrap(final Runnable runnable) {
+        // Uncaught exceptions would silently cancel all further refreshes
+        return () -> {
+            try {
+                runnable.run();
+            } catch (final Throwable t) {
+                logger.log(Level.SEVERE, "Error while executing database task", t);
+            }
+        };
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import eu.kennytv.maintenance.core.MaintenancePlugin;
+import eu.kennytv.maintenance.core.util.HttpService;
+import eu.kennytv.maintenance.core.util.RateLimitedException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.Blocking;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves many names at once through the bulk profile endpoint, using a limited number of concurrent requests.
+ * <p>
+ * Once rate limited, all requests are paused for a backoff duration, which is doubled on every further rate limit
+ * and halved again on every successful request.
+ */
+public final class BulkProfileResolver {
+    public static final String MOJANG_BULK_URL = "https://api.mojang.com/profiles/minecraft";
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]{1,16}");
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_CONSECUTIVE_RATE_LIMITS = 10;
+    private static final long MIN_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private final HttpService http;
+    private final String url;
+    private final int maxConcurrentRequests;
+    private final ProfileLookupCache cache;
+    private final Logger logger;
+    private long backoffMillis;
+    private long resumeAt;
+    private int consecutiveRateLimits;
+
+    /**
+     * @param http                  http service to send requests with
+     * @param url                   url of the bulk profile endpoint
+     * @param maxConcurrentRequests maximum number of requests in flight at once
+     * @param cache                 cache to serve names from and store results in, or null
+     * @param logger                logger for failed requests
+     */
+    public BulkProfileResolver(final HttpService http, final String url, final int maxConcurrentRequests, @Nullable final ProfileLookupCache cache, final Logger logger) {
+        this.http = http;
+        this.url = url;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.cache = cache;
+        this.logger = logger;
+    }
+
+    /**
+     * Resolves the profiles of the given names.
+     *
+     * @param names case-insensitive player names
+     * @return resolved and missing profiles, as well as names that could not be resolved due to errors
+     * @throws InterruptedException if interrupted while waiting for the requests
+     */
+    @Blocking
+    public Result resolve(final Collection<String> names) throws InterruptedException {
+        final Map<String, ProfileLookup> profiles = new ConcurrentHashMap<>();
+        final List<String> missingNames = Collections.synchronizedList(new ArrayList<>());
+        final List<String> failedNames = Collections.synchronizedList(new ArrayList<>());
+
+        // Deduplicate and serve what is already known
+        final Map<String, String> namesToRequest = new LinkedHashMap<>();
+        for (final String name : names) {
+            final String key = name.toLowerCase(Locale.ROOT);
+            if (!NAME_PATTERN.matcher(name).matches()) {
+                // A single invalid name fails the whole request
+                missingNames.add(name);
+            } else if (cache != null && cache.isCached(name)) {
+                final ProfileLookup profile = cache.getCached(name);
+                if (profile != null) {
+                    profiles.put(key, profile);
+                } else {
+                    missingNames.add(name);
+                }
+            } else {
+                namesToRequest.putIfAbsent(key, name);
+            }
+        }
+
+        final Deque<List<String>> batches = new ConcurrentLinkedDeque<>();
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (final String name : namesToRequest.values()) {
+            batch.add(name);
+            if (batch.size() == BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        if (batches.isEmpty()) {
+            return new Result(profiles, missingNames, failedNames);
+        }
+
+        final int workers = Math.min(maxConcurrentRequests, batches.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            final Thread thread = new Thread(runnable, "Maintenance Profile Resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                tasks.add(() -> {
+                    List<String> next;
+                    while ((next = batches.poll()) != null) {
+                        processBatch(next, batches, profiles, missingNames, failedNames);
+                    }
+                    return null;
+                });
+            }
+
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(profiles, missingNames, failedNames);
+    }
+
+    private void processBatch(final List<String> batch, final Deque<List<String>> batches, final Map<String, ProfileLookup> profiles,
+                              final List<String> missingNames, final List<String> failedNames) throws InterruptedException {
+        awaitBackoff();
+
+        final List<ProfileLookup> foundProfiles;
+        try {
+            foundProfiles = request(batch);
+        } catch (final RateLimitedException e) {
+            if (onRateLimited()) {
+                batches.addFirst(batch);
+            } else {
+                failedNames.addAll(batch);
+            }
+            return;
+        } catch (final IOException e) {
+            logger.warning("Failed to look up profiles of " + batch + ": " + e.getMessage());
+            failedNames.addAll(batch);
+            return;
+        }
+
+        onSuccess();
+        final Map<String, ProfileLookup> found = new HashMap<>();
+        for (final ProfileLookup profile : foundProfiles) {
+            found.put(profile.getName().toLowerCase(Locale.ROOT), profile);
+        }
+        for (final String name : batch) {
+            final ProfileLookup profile = found.get(name.toLowerCase(Locale.ROOT));
+            if (profile != null) {
+                profiles.put(name.toLowerCase(Locale.ROOT), profile);
+            } else {
+                missingNames.add(name);
+            }
+            if (cache != null) {
+                cache.putLookup(name, profile);
+            }
+        }
+    }
+
+    private List<ProfileLookup> request(final List<String> names) throws IOException {
+        final byte[] body = MaintenancePlugin.GSON.toJson(names).getBytes(StandardCharsets.UTF_8);
+        final HttpService.Response response = http.post(url, "application/json", body);
+        final int status = response.getStatus();
+        if (status == 429) {
+            throw new RateLimitedException();
+        }
+        if (status != 200) {
+            throw new IOException("Unexpected response code " + status);
+        }
+
+        final JsonArray json = MaintenancePlugin.GSON.fromJson(response.getBodyAsString(), JsonArray.class);
+        final List<ProfileLookup> profiles = new ArrayList<>(json.size());
+        for (final JsonElement element : json) {
+            final JsonObject profile = element.getAsJsonObject();
+            final String id = profile.getAsJsonPrimitive("id").getAsString();
+            final UUID uuid = new UUID(Long.parseUnsignedLong(id.substring(0, 16), 16), Long.parseUnsignedLong(id.substring(16, 32), 16));
+            profiles.add(new ProfileLookup(uuid, profile.getAsJsonPrimitive("name").getAsString()));
+        }
+        return profiles;
+    }
+
+    private void awaitBackoff() throws InterruptedException {
+        final long waitMillis;
+        synchronized (this) {
+            waitMillis = resumeAt - System.currentTimeMillis();
+        }
+        if (waitMillis > 0) {
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    // Returns false if the batch should be given up on
+    private synchronized boolean onRateLimited() {
+        if (++consecutiveRateLimits > MAX_CONSECUTIVE_RATE_LIMITS) {
+            return false;
+        }
+
+        backoffMillis = backoffMillis == 0 ? MIN_BACKOFF_MILLIS : Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        resumeAt = Math.max(resumeAt, System.currentTimeMillis() + backoffMillis);
+        return true;
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveRateLimits = 0;
+        backoffMillis = backoffMillis / 2 < MIN_BACKOFF_MILLIS ? 0 : backoffMillis / 2;
+    }
+
+    public static final class Result {
+        private final Map<String, ProfileLookup> profiles;
+        private final List<String> missingNames;
+        private final List<String> failedNames;
+
+        private Result(final Map<String, ProfileLookup> profiles, final List<String> missingNames, final List<String> failedNames) {
+            this.profiles = profiles;
+            this.missingNames = missingNames;
+            this.failedNames = failedNames;
+        }
+
+        /**
+         * @return resolved profiles, mapped by lowercased name
+         */
+        public Map<String, ProfileLookup> getProfiles() {
+            return profiles;
+        }
+
+        /**
+         * @return names without a profile
+         */
+        public List<String> getMissingNames() {
+            return missingNames;
+        }
+
+        /**
+         * @return names that could not be resolved due to errors or rate limits
+         */
+        public List<String> getFailedNames() {
+            return failedNames;
+        }
+    }
+}
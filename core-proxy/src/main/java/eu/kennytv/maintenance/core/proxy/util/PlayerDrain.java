@@ -0,0 +1,142 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.util;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Moves or kicks a fixed set of players in batches, instead of all of them at once.
+ * <p>
+ * Every {@link #BATCH_INTERVAL_MILLIS} milliseconds, the next batch of players is handed to the action, as long as
+ * the number of its still running connection attempts stays below the given maximum.
+ *
+ * @param <T> player type
+ */
+public final class PlayerDrain<T> {
+    public static final long BATCH_INTERVAL_MILLIS = 50;
+    private static final long PROGRESS_INTERVAL_MILLIS = 2000;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final Queue<T> players;
+    private final Function<T, @Nullable CompletableFuture<?>> action;
+    private final String description;
+    private final Logger logger;
+    private final int total;
+    private final int batchSize;
+    private final int maxPending;
+    private long startedAt;
+    private long lastProgress;
+    private int handled;
+    private ScheduledFuture<?> task;
+
+    /**
+     * @param players     players to handle
+     * @param action      action for a single player, returning a future for a connection attempt or null if done immediately
+     * @param description description of the action for the log, such as "Moving players to lobby"
+     * @param logger      logger for progress messages
+     * @param batchSize   maximum number of players handled per batch
+     * @param maxPending  maximum number of running connection attempts
+     */
+    public PlayerDrain(final Collection<T> players, final Function<T, @Nullable CompletableFuture<?>> action, final String description,
+                       final Logger logger, final int batchSize, final int maxPending) {
+        this.players = new ArrayDeque<>(players);
+        this.action = action;
+        this.description = description;
+        this.logger = logger;
+        this.total = players.size();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    /**
+     * Starts handling the players on the given executor.
+     *
+     * @param executor single threaded executor to run the batches on
+     * @return future completed once all players have been handled, or the drain has been cancelled
+     */
+    public synchronized CompletableFuture<Void> start(final ScheduledExecutorService executor) {
+        if (total > batchSize) {
+            logger.info(description + " (" + total + " players in batches of " + batchSize + ")...");
+        }
+        startedAt = lastProgress = System.currentTimeMillis();
+        task = executor.scheduleAtFixedRate(this::runBatch, 0, BATCH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * Stops handling further players, already started connection attempts are not cancelled.
+     */
+    public synchronized void cancel() {
+        if (task != null) {
+            task.cancel(false);
+        }
+        if (future.complete(null) && !players.isEmpty()) {
+            logger.info(description + " cancelled with " + players.size() + " players left");
+        }
+    }
+
+    private synchronized void runBatch() {
+        for (int i = 0; i < batchSize && pending.get() < maxPending; i++) {
+            final T player = players.poll();
+            if (player == null) {
+                break;
+            }
+
+            handled++;
+            final CompletableFuture<?> attempt;
+            try {
+                attempt = action.apply(player);
+            } catch (final RuntimeException e) {
+                failed.incrementAndGet();
+                continue;
+            }
+
+            if (attempt != null) {
+                pending.incrementAndGet();
+                attempt.whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        failed.incrementAndGet();
+                    }
+                    pending.decrementAndGet();
+                });
+            }
+        }
+
+        final long now = System.currentTimeMillis();
+        if (players.isEmpty() && pending.get() == 0) {
+            task.cancel(false);
+            if (future.complete(null) && total > batchSize) {
+                logger.info(description + " done after " + (now - startedAt) + "ms" + (failed.get() != 0 ? " (" + failed.get() + " failed)" : ""));
+            }
+        } else if (now - lastProgress >= PROGRESS_INTERVAL_MILLIS) {
+            lastProgress = now;
+            logger.info(description + ": " + handled + "/" + total + " players handled, " + pending.get() + " connecting");
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Caches name to profile lookups, including lookups of names without a profile.
+ * <p>
+ * Profiles of players seen on the proxy and successful lookups are persisted, concurrent lookups of the same name
+ * are combined into a single request.
+ */
+public final class ProfileLookupCache {
+    private static final int FILE_VERSION = 1;
+    private static final long PROFILE_TTL = TimeUnit.DAYS.toMillis(3);
+    private static final long MISSING_PROFILE_TTL = TimeUnit.MINUTES.toMillis(10);
+    private final Map<String, CachedProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ProfileLookup>> pendingLookups = new ConcurrentHashMap<>();
+    private final File file;
+    private final Logger logger;
+    private final Executor executor;
+
+    /**
+     * @param file     file to persist the cache in
+     * @param logger   logger for failed loads and saves
+     * @param executor executor to run lookups on
+     */
+    public ProfileLookupCache(final File file, final Logger logger, final Executor executor) {
+        this.file = file;
+        this.logger = logger;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the cached profile, or looks it up asynchronously with the given loader.
+     *
+     * @param name   case-insensitive player name
+     * @param loader blocking lookup of the profile, returning null if no profile exists for the name
+     * @return future with the profile, or null if no profile exists for the name
+     */
+    public CompletableFuture<@Nullable ProfileLookup> lookup(final String name, final Loader loader) {
+        final String key = name.toLowerCase(Locale.ROOT);
+        final CachedProfile cached = profiles.get(key);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            return CompletableFuture.completedFuture(cached.profile);
+        }
+
+        final CompletableFuture<ProfileLookup> future = new CompletableFuture<>();
+        final CompletableFuture<ProfileLookup> pendingLookup = pendingLookups.putIfAbsent(key, future);
+        if (pendingLookup != null) {
+            return pendingLookup;
+        }
+
+        try {
+            CompletableFuture.runAsync(() -> {
+                final ProfileLookup profile;
+                try {
+                    profile = loader.load(name);
+                } catch (final Throwable t) {
+                    // Failed lookups are not cached
+                    pendingLookups.remove(key);
+                    future.completeExceptionally(t);
+                    return;
+                }
+
+                put(key, profile, profile != null ? PROFILE_TTL : MISSING_PROFILE_TTL);
+                pendingLookups.remove(key);
+                future.complete(profile);
+            }, executor);
+        } catch (final RejectedExecutionException e) {
+            pendingLookups.remove(key);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @param name case-insensitive player name
+     * @return true if a lookup of the name is cached, including lookups of names without a profile
+     */
+    public boolean isCached(final String name) {
+        final CachedProfile cached = profiles.get(name.toLowerCase(Locale.ROOT));
+        return cached != null && !cached.isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * @param name case-insensitive player name
+     * @return cached profile, or null if not cached or no profile exists for the name
+     * @see #isCached(String)
+     */
+    public @Nullable ProfileLookup getCached(final String name) {
+        final CachedProfile cached = profiles.get(name.toLowerCase(Locale.ROOT));
+        return cached != null && !cached.isExpired(System.currentTimeMillis()) ? cached.profile : null;
+    }
+
+    /**
+     * Caches the result of a lookup done outside of the cache.
+     *
+     * @param name    player name
+     * @param profile profile, or null if no profile exists for the name
+     */
+    public void putLookup(final String name, @Nullable final ProfileLookup profile) {
+        put(name.toLowerCase(Locale.ROOT), profile, profile != null ? PROFILE_TTL : MISSING_PROFILE_TTL);
+    }
+
+    /**
+     * Caches the profile of a player that joined the proxy.
+     *
+     * @param uuid uuid of the player
+     * @param name name of the player
+     */
+    public void recordSeen(final UUID uuid, final String name) {
+        put(name.toLowerCase(Locale.ROOT), new ProfileLookup(uuid, name), PROFILE_TTL);
+    }
+
+    private void put(final String key, @Nullable final ProfileLookup profile, final long ttl) {
+        profiles.put(key, new CachedProfile(profile, System.currentTimeMillis() + ttl));
+    }
+
+    /**
+     * Loads the persisted profiles, skipping expired ones.
+     */
+    public void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            final int version = in.readInt();
+            if (version != FILE_VERSION) {
+                logger.warning("Unknown profile cache version " + version + ", discarding it");
+                return;
+            }
+
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final UUID uuid = new UUID(in.readLong(), in.readLong());
+                final String name = in.readUTF();
+                final long expiresAt = in.readLong();
+                if (expiresAt > now) {
+                    profiles.putIfAbsent(name.toLowerCase(Locale.ROOT), new CachedProfile(new ProfileLookup(uuid, name), expiresAt));
+                }
+            }
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, "Couldn't load the profile cache", e);
+        }
+    }
+
+    /**
+     * Persists all profiles that have not expired yet. Missing profiles are only cached in memory.
+     */
+    public synchronized void save() {
+        final long now = System.currentTimeMillis();
+        profiles.values().removeIf(cached -> cached.isExpired(now));
+
+        final Path path = file.toPath();
+        final Path tempPath = path.resolveSibling(file.getName() + ".tmp");
+        try {
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                final CachedProfile[] cachedProfiles = profiles.values().stream().filter(cached -> cached.profile != null).toArray(CachedProfile[]::new);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(cachedProfiles.length);
+                for (final CachedProfile cached : cachedProfiles) {
+                    out.writeLong(cached.profile.getUuid().getMostSignificantBits());
+                    out.writeLong(cached.profile.getUuid().getLeastSignificantBits());
+                    out.writeUTF(cached.profile.getName());
+                    out.writeLong(cached.expiresAt);
+                }
+            }
+
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, "Couldn't save the profile cache", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+
+        @Nullable ProfileLookup load(String name) throws IOException;
+    }
+
+    private static final class CachedProfile {
+        private final ProfileLookup profile;
+        private final long expiresAt;
+
+        private CachedProfile(@Nullable final ProfileLookup profile, final long expiresAt) {
+            this.profile = profile;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(final long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.mysql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void testOpensAfterThreshold() {
+        final CircuitBreaker breaker = new CircuitBreaker(3, 1000, 4000);
+        assertFalse(breaker.recordFailure(0));
+        assertFalse(breaker.recordFailure(0));
+        assertTrue(breaker.allowRequest(0));
+        assertTrue(breaker.recordFailure(0));
+
+        assertFalse(breaker.allowRequest(999));
+        // Only a single request is let through once the window has passed
+        assertTrue(breaker.allowRequest(1000));
+        assertFalse(breaker.allowRequest(1000));
+    }
+
+    @Test
+    void testBackoff() {
+        final CircuitBreaker breaker = new CircuitBreaker(1, 1000, 3000);
+        assertTrue(breaker.recordFailure(0));
+        assertEquals(1000, breaker.getBackoffMillis());
+
+        assertTrue(breaker.allowRequest(1000));
+        assertFalse(breaker.recordFailure(1000));
+        assertEquals(2000, breaker.getBackoffMillis());
+        assertFalse(breaker.allowRequest(2999));
+
+        assertTrue(breaker.allowRequest(3000));
+        breaker.recordFailure(3000);
+        assertEquals(3000, breaker.getBackoffMillis());
+    }
+
+    @Test
+    void testRecovery() {
+        final CircuitBreaker breaker = new CircuitBreaker(1, 1000, 3000);
+        breaker.recordFailure(0);
+        assertTrue(breaker.allowRequest(1000));
+        assertTrue(breaker.recordSuccess());
+        assertFalse(breaker.recordSuccess());
+        assertTrue(breaker.allowRequest(1000));
+
+        // Starts with the initial window again
+        assertTrue(breaker.recordFailure(1000));
+        assertEquals(1000, breaker.getBackoffMillis());
+    }
+}
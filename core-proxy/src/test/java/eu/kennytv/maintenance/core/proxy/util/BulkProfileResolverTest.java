@@ -0,0 +1,136 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import eu.kennytv.maintenance.core.util.HttpService;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkProfileResolverTest {
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger rateLimitsLeft = new AtomicInteger();
+    private final HttpService http = new HttpService("Maintenance/test");
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        http.shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testBatching() throws Exception {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            names.add("player" + i);
+        }
+        names.add("unknown");
+
+        final BulkProfileResolver.Result result = new BulkProfileResolver(http, startServer(), 2, null, Logger.getAnonymousLogger()).resolve(names);
+        assertEquals(25, result.getProfiles().size());
+        assertEquals(uuidOf("player7"), result.getProfiles().get("player7").getUuid());
+        assertEquals(Arrays.asList("unknown"), result.getMissingNames());
+        assertTrue(result.getFailedNames().isEmpty());
+
+        assertEquals(3, batchSizes.size());
+        for (final int batchSize : batchSizes) {
+            assertTrue(batchSize <= 10, "Batches must not exceed 10 names");
+        }
+    }
+
+    @Test
+    void testInvalidAndDuplicateNames() throws Exception {
+        final BulkProfileResolver.Result result = new BulkProfileResolver(http, startServer(), 2, null, Logger.getAnonymousLogger())
+                .resolve(Arrays.asList("Player1", "player1", "not a name"));
+        assertEquals(1, result.getProfiles().size());
+        assertEquals(Arrays.asList("not a name"), result.getMissingNames());
+        assertEquals(Arrays.asList(1), batchSizes);
+    }
+
+    @Test
+    void testRateLimitRetry() throws Exception {
+        rateLimitsLeft.set(2);
+        final BulkProfileResolver.Result result = new BulkProfileResolver(http, startServer(), 1, null, Logger.getAnonymousLogger())
+                .resolve(Arrays.asList("player1", "player2"));
+        assertEquals(2, result.getProfiles().size());
+        assertTrue(result.getFailedNames().isEmpty());
+        assertEquals(0, rateLimitsLeft.get());
+    }
+
+    private String startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/profiles/minecraft", this::handle);
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/profiles/minecraft";
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final JsonArray names = JsonParser.parseReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)).getAsJsonArray();
+        if (rateLimitsLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+            return;
+        }
+
+        final JsonArray profiles = new JsonArray();
+        batchSizes.add(names.size());
+        for (final JsonElement element : names) {
+            final String name = element.getAsString();
+            if (name.toLowerCase(Locale.ROOT).startsWith("player")) {
+                final JsonObject profile = new JsonObject();
+                profile.addProperty("id", uuidOf(name).toString().replace("-", ""));
+                profile.addProperty("name", name);
+                profiles.add(profile);
+            }
+        }
+
+        final byte[] response = profiles.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, response.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static UUID uuidOf(final String name) {
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.proxy.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerDrainTest {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Logger logger = Logger.getLogger("PlayerDrainTest");
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testBatches() throws Exception {
+        final List<Integer> players = players(25);
+        final List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        final PlayerDrain<Integer> drain = new PlayerDrain<>(players, player -> {
+            handled.add(player);
+            return null;
+        }, "Kicking players", logger, 10, 10);
+
+        final long start = System.currentTimeMillis();
+        drain.start(executor).get(5, TimeUnit.SECONDS);
+        // Three batches, with the first one running right away
+        assertTrue(System.currentTimeMillis() - start >= PlayerDrain.BATCH_INTERVAL_MILLIS * 2);
+        assertEquals(players, handled);
+    }
+
+    @Test
+    void testMaxPending() throws Exception {
+        final List<CompletableFuture<Void>> attempts = Collections.synchronizedList(new ArrayList<>());
+        final PlayerDrain<Integer> drain = new PlayerDrain<>(players(10), player -> {
+            final CompletableFuture<Void> attempt = new CompletableFuture<>();
+            attempts.add(attempt);
+            return attempt;
+        }, "Moving players", logger, 10, 3);
+
+        final CompletableFuture<Void> future = drain.start(executor);
+        Thread.sleep(PlayerDrain.BATCH_INTERVAL_MILLIS * 3);
+        assertEquals(3, attempts.size());
+
+        final AtomicInteger completed = new AtomicInteger();
+        while (completed.get() < 10) {
+            final List<CompletableFuture<Void>> running = new ArrayList<>(attempts);
+            for (final CompletableFuture<Void> attempt : running) {
+                if (attempt.complete(null)) {
+                    completed.incrementAndGet();
+                }
+            }
+            Thread.sleep(PlayerDrain.BATCH_INTERVAL_MILLIS);
+            assertTrue(attempts.size() - completed.get() <= 3);
+        }
+
+        future.get(5, TimeUnit.SECONDS);
+        assertEquals(10, attempts.size());
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        final AtomicInteger handled = new AtomicInteger();
+        final PlayerDrain<Integer> drain = new PlayerDrain<>(players(100), player -> {
+            handled.incrementAndGet();
+            return null;
+        }, "Kicking players", logger, 10, 10);
+
+        final CompletableFuture<Void> future = drain.start(executor);
+        Thread.sleep(PlayerDrain.BATCH_INTERVAL_MILLIS / 2);
+        drain.cancel();
+        assertTrue(future.isDone());
+
+        final int handledOnCancel = handled.get();
+        Thread.sleep(PlayerDrain.BATCH_INTERVAL_MILLIS * 3);
+        assertEquals(handledOnCancel, handled.get());
+        assertTrue(handledOnCancel < 100);
+    }
+
+    private static List<Integer> players(final int count) {
+        final List<Integer> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(i);
+        }
+        return players;
+    }
+}
@@ -24,6 +24,12 @@ dependencies {
     compileOnly(libs.guava)
     compileOnly(libs.gson)
     compileOnly(libs.snakeyaml)
+    // Unrelocated, for the conversion to platform components; only use API available in Adventure 4.7 (Paper 1.16.5)
+    compileOnly(libs.adventureApi)
+    compileOnly(libs.adventureTextSerializerGson)
+    testImplementation(libs.gson)
+    testImplementation(libs.adventureApi)
+    testImplementation(libs.adventureTextSerializerGson)
 }
 
 java {
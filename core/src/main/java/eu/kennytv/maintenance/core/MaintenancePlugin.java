@@ -18,10 +18,10 @@
 package eu.kennytv.maintenance.core;
 
 import com.google.common.collect.Lists;
-import com.google.common.io.CharStreams;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import eu.kennytv.maintenance.api.Maintenance;
 import eu.kennytv.maintenance.api.MaintenanceProvider;
 import eu.kennytv.maintenance.api.event.MaintenanceChangedEvent;
@@ -32,42 +32,50 @@ import eu.kennytv.maintenance.core.dump.PluginDump;
 import eu.kennytv.maintenance.core.hook.ServerListPlusHook;
 import eu.kennytv.maintenance.core.runnable.MaintenanceRunnable;
 import eu.kennytv.maintenance.core.runnable.MaintenanceScheduleRunnable;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
+import eu.kennytv.maintenance.core.util.HttpService;
+import eu.kennytv.maintenance.core.util.MessageTemplate;
 import eu.kennytv.maintenance.core.util.SenderInfo;
 import eu.kennytv.maintenance.core.util.ServerType;
 import eu.kennytv.maintenance.core.util.Task;
+import eu.kennytv.maintenance.core.util.UpdateChecker;
+import eu.kennytv.maintenance.core.util.UpdateInstaller;
 import eu.kennytv.maintenance.core.util.Version;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.format.NamedTextColor;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLConnection;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.Nullable;
 
 public abstract class MaintenancePlugin implements Maintenance {
     public static final Gson GSON = new GsonBuilder().create();
     public static final String HANGAR_URL = "https://hangar.papermc.io/kennytv/Maintenance";
     private static final Pattern INT_PATTERN = Pattern.compile("[0-9]+");
+    private static final int PASTED_DUMP_MAX_INLINED_ENTRIES = 1000;
     protected final EventManager eventManager;
     protected final Version version;
     protected Settings settings;
@@ -76,7 +84,9 @@ public abstract class MaintenancePlugin implements Maintenance {
     protected MaintenanceCommand commandManager;
     private final Component prefix;
     private final ServerType serverType;
-    private Version newestVersion;
+    private final HttpService httpService;
+    private final UpdateChecker updateChecker;
+    private volatile AdmissionQueue admissionQueue;
     private boolean debug;
 
     protected MaintenancePlugin(final String version, final ServerType serverType) {
@@ -89,10 +99,16 @@ public abstract class MaintenancePlugin implements Maintenance {
                 .append(Component.text(" "))
                 .build();
         this.eventManager = new eu.kennytv.maintenance.core.event.EventManager();
+        this.httpService = new HttpService("Maintenance/" + version);
+        this.updateChecker = new UpdateChecker(httpService);
         MaintenanceProvider.setMaintenance(this);
     }
 
     public void disable() {
+        settings.stopFileWatcher();
+        settings.getWhitelist().flush();
+        settings.getConfigWriter().shutdown();
+        httpService.shutdown();
     }
 
     @Override
@@ -120,24 +136,56 @@ public abstract class MaintenancePlugin implements Maintenance {
         }
 
         if (maintenance) {
+            admissionQueue = null;
             broadcast(settings.getMessage("maintenanceActivated"));
             if (settings.isKickOnlinePlayers()) {
                 kickPlayers();
             }
         } else {
+            if (settings.hasAdmissionQueue()) {
+                admissionQueue = createAdmissionQueue(settings.getSnapshot().getAdmissionQueueLoginsPerSecond());
+            }
             broadcast(settings.getMessage("maintenanceDeactivated"));
         }
 
         eventManager.callEvent(new MaintenanceChangedEvent(maintenance));
     }
 
-    public String replacePingVariables(String component) {
-        if (component.contains("%TIMER%")) {
-            component = component.replace("%TIMER%", getTimerMessage());
+    protected AdmissionQueue createAdmissionQueue(final int loginsPerSecond) {
+        return new AdmissionQueue(loginsPerSecond, TimeUnit.MINUTES.toMillis(settings.getSnapshot().getAdmissionQueueDuration()));
+    }
+
+    /**
+     * @return queue limiting logins after maintenance has been disabled, or null if logins are not limited
+     */
+    public @Nullable AdmissionQueue getAdmissionQueue() {
+        final AdmissionQueue admissionQueue = this.admissionQueue;
+        return admissionQueue != null && admissionQueue.isActive() ? admissionQueue : null;
+    }
+
+    public String replacePingVariables(final String component) {
+        return replacePingVariables(MessageTemplate.compile(component));
+    }
+
+    public String replacePingVariables(final MessageTemplate template) {
+        return template.render(this::getPingVariable);
+    }
+
+    /**
+     * @param placeholder placeholder including the percent signs
+     * @return value of the ping variable, or null if it is not a ping variable
+     */
+    public @Nullable String getPingVariable(final String placeholder) {
+        switch (placeholder) {
+            case "%TIMER%":
+                return getTimerMessage();
+            case "%ONLINE%":
+                return Integer.toString(getOnlinePlayers());
+            case "%MAX%":
+                return Integer.toString(getMaxPlayers());
+            default:
+                return null;
         }
-        component = component.replace("%ONLINE%", String.valueOf(getOnlinePlayers()));
-        component = component.replace("%MAX%", String.valueOf(getMaxPlayers()));
-        return component;
     }
 
     public String getTimerMessage() {
@@ -176,6 +224,7 @@ public abstract class MaintenancePlugin implements Maintenance {
 
     public void startMaintenanceRunnable(final Duration duration, final boolean enable) {
         runnable = new MaintenanceRunnable(this, settings, (int) duration.getSeconds(), enable);
+        settings.getPingResponseCache().invalidate();
         // Save the endtimer to be able to continue it after a server stop
         if (settings.isSaveEndtimerOnStop() && !runnable.shouldEnable()) {
             settings.setSavedEndtimer(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(runnable.getSecondsLeft()));
@@ -184,15 +233,17 @@ public abstract class MaintenancePlugin implements Maintenance {
 
     public void scheduleMaintenanceRunnable(final Duration enableIn, final Duration maintenanceDuration) {
         runnable = new MaintenanceScheduleRunnable(this, settings, (int) enableIn.getSeconds(), (int) maintenanceDuration.getSeconds());
+        settings.getPingResponseCache().invalidate();
     }
 
-    public boolean updateAvailable() {
-        try {
-            checkNewestVersion();
-            return version.compareTo(newestVersion) < 0;
-        } catch (final Exception e) {
-            return false;
-        }
+    /**
+     * Checks whether a newer version is available, only fetching the latest version once per configured interval.
+     *
+     * @return future with true if a newer version is available
+     */
+    public CompletableFuture<Boolean> checkForUpdate() {
+        return updateChecker.getLatestVersion(TimeUnit.MINUTES.toMillis(settings.getUpdateCheckInterval()))
+                .thenApply(latestVersion -> latestVersion != null && version.compareTo(latestVersion) < 0);
     }
 
     protected void continueLastEndtimer() {
@@ -216,16 +267,14 @@ public abstract class MaintenancePlugin implements Maintenance {
 
     protected void sendEnableMessage() {
         if (!settings.hasUpdateChecks()) return;
-        async(() -> {
-            try {
-                checkNewestVersion();
-            } catch (final Exception e) {
+        updateChecker.getLatestVersion(TimeUnit.MINUTES.toMillis(settings.getUpdateCheckInterval())).thenAccept(latestVersion -> {
+            if (latestVersion == null) {
                 return;
             }
 
-            final int compare = version.compareTo(newestVersion);
+            final int compare = version.compareTo(latestVersion);
             if (compare < 0) {
-                getLogger().warning("Newest version available: Version " + newestVersion + ", you're on " + version);
+                getLogger().warning("Newest version available: Version " + latestVersion + ", you're on " + version);
             } else if (compare > 0) {
                 if (version.getTag().equalsIgnoreCase("snapshot")) {
                     getLogger().info("You're running a development version, please report bugs on the Discord server (https://discord.gg/vGCUzHq) or the GitHub issue tracker (https://github.com/kennytv/Maintenance/issues)");
@@ -236,82 +285,76 @@ public abstract class MaintenancePlugin implements Maintenance {
         });
     }
 
-    public boolean installUpdate() throws Exception {
+    /**
+     * Downloads and verifies the newest version, replacing the current plugin file.
+     *
+     * @return download statistics
+     * @throws IOException if there is no newer version, or the download or verification fails
+     */
+    @Blocking
+    public UpdateInstaller.Result installUpdate() throws IOException {
+        final Version newestVersion = getNewestVersion();
+        if (newestVersion == null) {
+            throw new IOException("No newer version found");
+        }
+
         // Sponge and Velocity need their own jar
         final String platformInfix = serverType == ServerType.VELOCITY ? "Velocity-" : serverType == ServerType.SPONGE ? "Sponge-" : "";
         final String fileName = "Maintenance-" + platformInfix + newestVersion + ".jar";
-        final Path tempFilePath = Paths.get(getPluginFolder() + "Maintenance.tmp");
-        final URLConnection connection = new URL("https://github.com/kennytv/Maintenance/releases/download/" + newestVersion + "/" + fileName).openConnection();
-        try (final BufferedInputStream is = new BufferedInputStream(connection.getInputStream());
-             final BufferedOutputStream os = new BufferedOutputStream(Files.newOutputStream(tempFilePath))) {
-            writeFile(is, os);
-        }
-
-        final File file = tempFilePath.toFile();
-        final long newlength = file.length();
-        if (newlength < 10_000) {
-            // Sanity check the file length
-            file.delete();
-            return false;
-        }
+        return new UpdateInstaller(httpService).install(newestVersion, fileName, getPluginFile().toPath());
+    }
 
-        try (final InputStream is = Files.newInputStream(file.toPath());
-             final BufferedOutputStream os = new BufferedOutputStream(Files.newOutputStream(getPluginFile().toPath()))) {
-            writeFile(is, os);
+    /**
+     * Writes a full, gzip compressed dump into the dumps folder of the plugin.
+     *
+     * @return written file
+     * @throws IOException if writing the file fails
+     */
+    @Blocking
+    public File writeDumpFile() throws IOException {
+        final File folder = new File(getDataFolder(), "dumps");
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
         }
 
-        file.delete();
-        return true;
-    }
-
-    private void writeFile(final InputStream is, final OutputStream os) throws IOException {
-        final byte[] chunk = new byte[1024];
-        int chunkSize;
-        while ((chunkSize = is.read(chunk)) != -1) {
-            os.write(chunk, 0, chunkSize);
+        final String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss", Locale.ROOT).format(new Date());
+        final File file = new File(folder, "dump-" + timestamp + ".json.gz");
+        final MaintenanceDump dump = new MaintenanceDump(this, settings);
+        try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+            final JsonWriter writer = createDumpWriter(out);
+            dump.write(writer, MaintenanceDump.INLINE_ALL);
+            writer.flush();
         }
+        return file;
     }
 
-    private void checkNewestVersion() throws Exception {
-        final URLConnection connection = new URL("https://hangar.papermc.io/api/v1/projects/Maintenance/latestrelease").openConnection();
-        connection.setRequestProperty("User-Agent", "Maintenance/" + getVersion());
-        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-            final String newVersionString = reader.readLine();
-            final Version newVersion = new Version(newVersionString);
-            if (!newVersion.equals(version)) {
-                newestVersion = newVersion;
-            }
-        }
+    private JsonWriter createDumpWriter(final OutputStream out) {
+        final JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        writer.setIndent("  ");
+        writer.setSerializeNulls(false);
+        return writer;
     }
 
     public String pasteDump() {
         final MaintenanceDump dump = new MaintenanceDump(this, settings);
         try {
-            final HttpURLConnection connection = (HttpURLConnection) new URL("https://api.pastes.dev/post").openConnection();
-            connection.setDoOutput(true);
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("User-Agent", "Maintenance/" + getVersion());
-            connection.setRequestProperty("Content-Type", "text/plain");
-
-            try (final OutputStream out = connection.getOutputStream()) {
-                out.write(new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create().toJson(dump).getBytes(StandardCharsets.UTF_8));
-            }
-
-            if (connection.getResponseCode() == 503) {
+            final HttpService.Response response = httpService.post("https://api.pastes.dev/post", "text/plain", out -> {
+                final JsonWriter writer = createDumpWriter(out);
+                dump.write(writer, PASTED_DUMP_MAX_INLINED_ENTRIES);
+                writer.flush();
+            });
+            if (response.getStatus() == 503) {
                 getLogger().warning("Could not paste dump, pastes.dev down?");
                 return null;
             }
 
-            try (final InputStream in = connection.getInputStream()) {
-                final String output = CharStreams.toString(new InputStreamReader(in));
-                final JsonObject jsonOutput = GSON.fromJson(output, JsonObject.class);
-                if (!jsonOutput.has("key")) {
-                    getLogger().log(Level.WARNING, "Could not paste dump, there was no key returned :(");
-                    return null;
-                }
-
-                return jsonOutput.get("key").getAsString();
+            final JsonObject jsonOutput = GSON.fromJson(response.getBodyAsString(), JsonObject.class);
+            if (jsonOutput == null || !jsonOutput.has("key")) {
+                getLogger().log(Level.WARNING, "Could not paste dump, there was no key returned :(");
+                return null;
             }
+
+            return jsonOutput.get("key").getAsString();
         } catch (final IOException e) {
             getLogger().log(Level.WARNING, "Could not paste dump :(", e);
             return null;
@@ -340,6 +383,7 @@ public abstract class MaintenancePlugin implements Maintenance {
 
         runnable.getTask().cancel();
         runnable = null;
+        settings.getPingResponseCache().invalidate();
     }
 
     @Nullable
@@ -408,8 +452,12 @@ public abstract class MaintenancePlugin implements Maintenance {
         return Integer.MAX_VALUE;
     }
 
+    /**
+     * @return latest version of the last update check, or null if not checked yet
+     */
+    @Nullable
     public Version getNewestVersion() {
-        return newestVersion;
+        return updateChecker.getCachedLatestVersion();
     }
 
     public Component prefix() {
@@ -424,6 +472,10 @@ public abstract class MaintenancePlugin implements Maintenance {
         return runnable;
     }
 
+    public HttpService getHttpService() {
+        return httpService;
+    }
+
     public MaintenanceCommand getCommandManager() {
         return commandManager;
     }
@@ -432,10 +484,6 @@ public abstract class MaintenancePlugin implements Maintenance {
         return serverType;
     }
 
-    protected String getPluginFolder() {
-        return "plugins/";
-    }
-
     public abstract void async(Runnable runnable);
 
     protected abstract void executeConsoleCommand(String command);
@@ -454,6 +502,32 @@ public abstract class MaintenancePlugin implements Maintenance {
 
     public abstract CompletableFuture<@Nullable SenderInfo> getOfflinePlayer(UUID uuid);
 
+    /**
+     * Looks up the offline sender infos of many players at once.
+     * Names without a player or failed lookups are not contained in the result.
+     *
+     * @param names       names of the players
+     * @param failedNames collection to add names to that could not be looked up due to errors
+     * @return sender infos mapped by lowercased name
+     * @throws InterruptedException if interrupted while waiting for the lookups
+     */
+    @Blocking
+    public Map<String, SenderInfo> lookupPlayers(final Collection<String> names, final Collection<String> failedNames) throws InterruptedException {
+        final Map<String, SenderInfo> players = new HashMap<>();
+        for (final String name : names) {
+            try {
+                final SenderInfo player = getOfflinePlayer(name).get();
+                if (player != null) {
+                    players.put(name.toLowerCase(Locale.ROOT), player);
+                }
+            } catch (final ExecutionException e) {
+                getLogger().log(Level.WARNING, "Error while fetching offline player " + name, e.getCause());
+                failedNames.add(name);
+            }
+        }
+        return players;
+    }
+
     public abstract File getDataFolder();
 
     @Nullable
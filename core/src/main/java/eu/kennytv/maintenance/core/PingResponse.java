@@ -0,0 +1,90 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core;
+
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import java.util.function.Function;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Fully rendered status ping response for one of the maintenance motd variants.
+ * Instances are shared between pings and must not be modified.
+ *
+ * @see PingResponseCache
+ */
+public final class PingResponse {
+    private final SettingsSnapshot settings;
+    private final Component description;
+    private final String playerCountMessage;
+    private final String[] playerCountHoverLines;
+    private volatile Object platformDescription;
+
+    PingResponse(final SettingsSnapshot settings, final Component description, @Nullable final String playerCountMessage, final String[] playerCountHoverLines) {
+        this.settings = settings;
+        this.description = description;
+        this.playerCountMessage = playerCountMessage;
+        this.playerCountHoverLines = playerCountHoverLines;
+    }
+
+    /**
+     * @return settings the response has been rendered from
+     */
+    public SettingsSnapshot getSettings() {
+        return settings;
+    }
+
+    public Component getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the description converted to the platform's component type, only converting it on the first call.
+     * The converter has to return the same type on every call.
+     *
+     * @param converter converter from the relocated component to the platform component
+     * @param <T>       platform component type
+     * @return converted description
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getPlatformDescription(final Function<Component, T> converter) {
+        Object platformDescription = this.platformDescription;
+        if (platformDescription == null) {
+            // Converting twice in a race is fine, both results are equal
+            platformDescription = converter.apply(description);
+            this.platformDescription = platformDescription;
+        }
+        return (T) platformDescription;
+    }
+
+    /**
+     * @return legacy player count message with ping variables already replaced, or null if not supported on the platform
+     */
+    @Nullable
+    public String getPlayerCountMessage() {
+        return playerCountMessage;
+    }
+
+    /**
+     * The returned array is shared and must not be modified.
+     *
+     * @return legacy player list hover lines with ping variables already replaced
+     */
+    public String[] getPlayerCountHoverLines() {
+        return playerCountHoverLines;
+    }
+}
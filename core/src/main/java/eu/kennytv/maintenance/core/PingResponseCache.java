@@ -0,0 +1,159 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core;
+
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds fully rendered ping responses for every motd variant, so that pings only have to pick one of them.
+ * <p>
+ * Responses are re-rendered lazily once the generation has been bumped, which happens on reloads, maintenance toggles,
+ * timer starts and stops, timer ticks if {@code %TIMER%} is used, and player count changes if {@code %ONLINE%} or {@code %MAX%} is used.
+ */
+public final class PingResponseCache {
+    private static final String TIMER_VARIABLE = "%TIMER%";
+    private static final String ONLINE_VARIABLE = "%ONLINE%";
+    private static final String MAX_VARIABLE = "%MAX%";
+    private final AtomicInteger generation = new AtomicInteger();
+    private final MaintenancePlugin plugin;
+    private final Settings settings;
+    private volatile RenderedResponses responses;
+
+    PingResponseCache(final MaintenancePlugin plugin, final Settings settings) {
+        this.plugin = plugin;
+        this.settings = settings;
+    }
+
+    /**
+     * Returns one of the rendered ping responses, chosen randomly if there are multiple ping messages.
+     *
+     * @return rendered ping response
+     */
+    public PingResponse get() {
+        RenderedResponses responses = this.responses;
+        if (responses != null && responses.playerCountDependent
+                && (responses.onlinePlayers != plugin.getOnlinePlayers() || responses.maxPlayers != plugin.getMaxPlayers())) {
+            invalidate();
+        }
+
+        final int generation = this.generation.get();
+        if (responses == null || responses.generation != generation) {
+            responses = render(generation);
+        }
+
+        final PingResponse[] variants = responses.variants;
+        return variants.length == 1 ? variants[0] : variants[ThreadLocalRandom.current().nextInt(variants.length)];
+    }
+
+    /**
+     * Marks the current responses as outdated.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Marks the current responses as outdated if they include the timer.
+     */
+    public void timerTick() {
+        final RenderedResponses responses = this.responses;
+        if (responses == null || responses.timerDependent) {
+            invalidate();
+        }
+    }
+
+    private synchronized RenderedResponses render(final int generation) {
+        RenderedResponses responses = this.responses;
+        if (responses != null && responses.generation == generation) {
+            // Already rendered by another thread
+            return responses;
+        }
+
+        final int onlinePlayers = plugin.getOnlinePlayers();
+        final int maxPlayers = plugin.getMaxPlayers();
+        // Render everything from the same snapshot, even if settings are reloaded concurrently
+        final SettingsSnapshot snapshot = settings.getSnapshot();
+        final boolean timerRunning = settings.isTimerRunning();
+        final List<String> pingMessages = snapshot.getActivePingMessages(timerRunning);
+        final String rawPlayerCountMessage = snapshot.getRawPlayerCountMessage(timerRunning);
+        final List<String> rawHoverLines = snapshot.getRawPlayerCountHoverLines(timerRunning);
+
+        boolean timerDependent = false;
+        boolean playerCountDependent = false;
+        final String playerCountMessage;
+        if (rawPlayerCountMessage != null) {
+            timerDependent = rawPlayerCountMessage.contains(TIMER_VARIABLE);
+            playerCountDependent = dependsOnPlayerCount(rawPlayerCountMessage);
+            playerCountMessage = plugin.replacePingVariables(rawPlayerCountMessage);
+        } else {
+            playerCountMessage = null;
+        }
+
+        final String[] hoverLines = new String[rawHoverLines.size()];
+        for (int i = 0; i < hoverLines.length; i++) {
+            final String line = rawHoverLines.get(i);
+            timerDependent |= line.contains(TIMER_VARIABLE);
+            playerCountDependent |= dependsOnPlayerCount(line);
+            hoverLines[i] = plugin.replacePingVariables(line);
+        }
+
+        final PingResponse[] variants;
+        if (pingMessages.isEmpty()) {
+            variants = new PingResponse[]{new PingResponse(snapshot, Component.empty(), playerCountMessage, hoverLines)};
+        } else {
+            variants = new PingResponse[pingMessages.size()];
+            for (int i = 0; i < variants.length; i++) {
+                final String message = pingMessages.get(i);
+                timerDependent |= message.contains(TIMER_VARIABLE);
+                playerCountDependent |= dependsOnPlayerCount(message);
+                variants[i] = new PingResponse(snapshot, settings.parse(plugin.replacePingVariables(message)), playerCountMessage, hoverLines);
+            }
+        }
+
+        responses = new RenderedResponses(generation, variants, timerDependent, playerCountDependent, onlinePlayers, maxPlayers);
+        this.responses = responses;
+        return responses;
+    }
+
+    private static boolean dependsOnPlayerCount(@Nullable final String s) {
+        return s != null && (s.contains(ONLINE_VARIABLE) || s.contains(MAX_VARIABLE));
+    }
+
+    private static final class RenderedResponses {
+        private final int generation;
+        private final PingResponse[] variants;
+        private final boolean timerDependent;
+        private final boolean playerCountDependent;
+        private final int onlinePlayers;
+        private final int maxPlayers;
+
+        private RenderedResponses(final int generation, final PingResponse[] variants, final boolean timerDependent,
+                                  final boolean playerCountDependent, final int onlinePlayers, final int maxPlayers) {
+            this.generation = generation;
+            this.variants = variants;
+            this.timerDependent = timerDependent;
+            this.playerCountDependent = playerCountDependent;
+            this.onlinePlayers = onlinePlayers;
+            this.maxPlayers = maxPlayers;
+        }
+    }
+}
@@ -20,7 +20,15 @@ package eu.kennytv.maintenance.core;
 import eu.kennytv.maintenance.api.event.MaintenanceReloadedEvent;
 import eu.kennytv.maintenance.core.config.Config;
 import eu.kennytv.maintenance.core.config.ConfigSection;
+import eu.kennytv.maintenance.core.config.ConfigWriter;
+import eu.kennytv.maintenance.core.config.FileWatcher;
+import eu.kennytv.maintenance.core.util.ComponentCache;
+import eu.kennytv.maintenance.core.util.MessageTemplate;
 import eu.kennytv.maintenance.core.util.ServerType;
+import eu.kennytv.maintenance.core.whitelist.JournalWhitelistStorage;
+import eu.kennytv.maintenance.core.whitelist.WhitelistStorage;
+import eu.kennytv.maintenance.core.whitelist.WhitelistStore;
+import eu.kennytv.maintenance.core.whitelist.YamlWhitelistStorage;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.TextComponent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.minimessage.MiniMessage;
@@ -29,56 +37,45 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import org.jetbrains.annotations.Nullable;
 
 public class Settings implements eu.kennytv.maintenance.api.Settings {
     public static final String NEW_LINE_REPLACEMENT = "<br>";
-    private static final int CONFIG_VERSION = 9;
-    private static final int LANGUAGE_VERSION = 2;
-    private static final Random RANDOM = new Random();
+    private static final int CONFIG_VERSION = 16;
+    private static final int LANGUAGE_VERSION = 4;
     protected final MaintenancePlugin plugin;
-    private final Map<UUID, String> whitelistedPlayers = new HashMap<>();
+    private final WhitelistStore whitelist;
+    private final ConfigWriter configWriter;
+    private final PingResponseCache pingResponseCache;
     private final String[] unsupportedFields;
-    protected boolean maintenance;
-    private Set<Integer> broadcastIntervals;
-    private List<String> pingMessages;
-    private List<String> timerSpecificPingMessages;
-    private List<String> commandsOnMaintenanceEnable;
-    private List<String> commandsOnMaintenanceDisable;
-    private String legacyParsedPlayerCountMessage;
-    private String legacyParsedTimerPlayerCountMessage;
-    private List<String> legacyParsedPlayerCountHoverLines;
-    private List<String> legacyParsedTimerPlayerCountHoverLines;
+    private final Object reloadLock = new Object();
+    protected volatile boolean maintenance;
+    private volatile SettingsSnapshot snapshot;
     private String prefixString;
+    private volatile Map<String, MessageTemplate> messageTemplates = new ConcurrentHashMap<>();
+    // Messages with placeholders, such as kick messages including the timer, rendered the same way for many players at once
+    private final ComponentCache parsedMessages = new ComponentCache(this::parse, 256, TimeUnit.SECONDS.toMillis(30));
     private String languageName;
-    private boolean enablePingMessages;
-    private boolean customPlayerCountMessage;
-    private boolean customPlayerCountHoverMessage;
-    private boolean customMaintenanceIcon;
-    private boolean joinNotifications;
-    private boolean updateChecks;
-    private boolean saveEndtimerOnStop;
-    private boolean kickOnlinePlayers;
-    private boolean debug;
     private long savedEndtimer;
+    private FileWatcher fileWatcher;
 
     protected Config config;
     protected Config language;
-    protected Config whitelist;
 
     public Settings(final MaintenancePlugin plugin, final String... unsupportedFields) {
         this.plugin = plugin;
         this.unsupportedFields = unsupportedFields;
+        this.pingResponseCache = new PingResponseCache(plugin, this);
+        this.whitelist = new WhitelistStore(plugin::async, plugin.getLogger());
+        this.configWriter = new ConfigWriter(plugin.getLogger());
         if (!plugin.getDataFolder().exists()) {
             updatePluginDirectory();
             plugin.getDataFolder().mkdirs();
@@ -92,45 +89,161 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
 
     @Override
     public void reloadConfigs() {
+        synchronized (reloadLock) {
+            // Make sure pending changes are not lost by reading outdated files
+            configWriter.flush();
+            whitelist.flush();
+            try {
+                config = new Config(new File(plugin.getDataFolder(), "config.yml"), unsupportedFields);
+                config.load();
+                config.resetAwesomeHeader();
+                whitelist.load(createWhitelistStorage());
+            } catch (final Exception e) {
+                throw new RuntimeException("Unable to load Maintenance files - probably a malformed config file", e);
+            }
+
+            loadSettings();
+            if (snapshot.hasCustomIcon()) {
+                plugin.loadMaintenanceIcon();
+            }
+
+            loadLanguage();
+            pingResponseCache.invalidate();
+            updateFileWatcher();
+        }
+
+        plugin.getEventManager().callEvent(new MaintenanceReloadedEvent());
+    }
+
+    /**
+     * Stops watching the plugin folder for edited files.
+     */
+    public void stopFileWatcher() {
+        synchronized (reloadLock) {
+            if (fileWatcher != null) {
+                fileWatcher.close();
+                fileWatcher = null;
+            }
+        }
+    }
+
+    private void updateFileWatcher() {
+        if (!snapshot.isWatchFiles()) {
+            stopFileWatcher();
+            return;
+        }
+        if (fileWatcher != null) {
+            return;
+        }
+
+        try {
+            fileWatcher = new FileWatcher(plugin.getDataFolder().toPath(), this::handleFileChange, plugin.getLogger());
+        } catch (final IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Unable to watch the plugin folder for edited files", e);
+        }
+    }
+
+    /**
+     * Reloads only the given edited file and rebuilds what depends on it, if its contents have actually changed.
+     * Called from the file watcher thread.
+     *
+     * @param fileName name of the edited file in the plugin folder
+     */
+    private void handleFileChange(final String fileName) {
+        final boolean changed;
+        synchronized (reloadLock) {
+            if (fileName.equals(config.getFile().getName())) {
+                changed = reloadConfigFile();
+            } else if (fileName.equals(language.getFile().getName())) {
+                changed = reloadLanguageFile();
+            } else if (isWhitelistFile(fileName)) {
+                // Skip our own saves, which would otherwise load and diff the whole whitelist after every change
+                changed = !whitelist.isUnchanged(fileName) && reloadWhitelist();
+            } else if (fileName.equals("maintenance-icon.png")) {
+                if (snapshot.hasCustomIcon()) {
+                    plugin.loadMaintenanceIcon();
+                }
+                return;
+            } else {
+                return;
+            }
+        }
+
+        if (changed) {
+            plugin.getLogger().info("Reloaded the edited " + fileName + " file");
+            plugin.getEventManager().callEvent(new MaintenanceReloadedEvent());
+        }
+    }
+
+    private boolean reloadConfigFile() {
+        // Our own saves also trigger a reload, so make sure the file contains all changes before comparing
+        configWriter.flush();
+        final Config updatedConfig = new Config(config.getFile(), unsupportedFields);
         try {
-            config = new Config(new File(plugin.getDataFolder(), "config.yml"), unsupportedFields);
-            config.load();
-            config.resetAwesomeHeader();
-            whitelist = new Config(new File(plugin.getDataFolder(), "WhitelistedPlayers.yml"));
-            whitelist.load();
+            updatedConfig.load();
         } catch (final Exception e) {
-            throw new RuntimeException("Unable to load Maintenance files - probably a malformed config file", e);
+            plugin.getLogger().log(Level.WARNING, "Unable to reload the edited config file - probably a malformed config file", e);
+            return false;
+        }
+
+        if (updatedConfig.getValues().equals(config.getValues())) {
+            return false;
         }
 
+        final String previousLanguage = languageName;
+        final boolean previousCustomIcon = snapshot.hasCustomIcon();
+        final boolean previousJournalWhitelist = isJournalWhitelist();
+        updatedConfig.resetAwesomeHeader();
+        config = updatedConfig;
         loadSettings();
-        createLanguageFile();
 
-        try {
-            language = new Config(new File(plugin.getDataFolder(), "language-" + languageName + ".yml"));
-            language.load();
-        } catch (final IOException e) {
-            throw new RuntimeException("Unable to load Maintenance language file - probably a malformed file", e);
+        if (snapshot.hasCustomIcon() && !previousCustomIcon) {
+            plugin.loadMaintenanceIcon();
         }
+        if (!languageName.equals(previousLanguage)) {
+            loadLanguage();
+        }
+        if (isJournalWhitelist() != previousJournalWhitelist) {
+            reloadWhitelist();
+        }
+        pingResponseCache.invalidate();
+        updateFileWatcher();
+        return true;
+    }
 
+    private boolean reloadLanguageFile() {
+        final Config updatedLanguage = new Config(language.getFile());
         try {
-            updateLanguageFile();
-        } catch (final IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Couldn't update language file", e);
+            updatedLanguage.load();
+        } catch (final Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Unable to reload the edited language file - probably a malformed file", e);
+            return false;
         }
 
-        prefixString = language.getString("prefix");
+        if (updatedLanguage.getValues().equals(language.getValues())) {
+            return false;
+        }
 
-        plugin.getEventManager().callEvent(new MaintenanceReloadedEvent());
+        setLanguage(updatedLanguage);
+        return true;
     }
 
-    public void saveConfig() {
+    private boolean reloadWhitelist() {
         try {
-            config.save();
-        } catch (final IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Couldn't save the config file!", e);
+            return whitelist.reload(createWhitelistStorage());
+        } catch (final Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Unable to reload the edited whitelist file", e);
+            return false;
         }
     }
 
+    /**
+     * Saves the config shortly after on a background thread, coalescing saves made in the meantime.
+     */
+    public void saveConfig() {
+        configWriter.save(config);
+    }
+
     // Public, as it is used in the MaintenanceAddon
     public void createFile(final String name) {
         createFile(name, name);
@@ -147,12 +260,51 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
         }
     }
 
-    private void saveWhitelistedPlayers() {
+    private WhitelistStorage createWhitelistStorage() {
+        if (isJournalWhitelist()) {
+            return new JournalWhitelistStorage(plugin.getDataFolder(), plugin.getLogger());
+        }
+
+        final String storageType = config.getString("whitelist-storage", "yaml");
+        if (!storageType.equalsIgnoreCase("yaml")) {
+            plugin.getLogger().warning("Unknown whitelist storage type " + storageType + ", falling back to yaml");
+        }
+        return new YamlWhitelistStorage(new File(plugin.getDataFolder(), "WhitelistedPlayers.yml"), plugin.getLogger());
+    }
+
+    private boolean isJournalWhitelist() {
+        return config.getString("whitelist-storage", "yaml").equalsIgnoreCase("journal");
+    }
+
+    private boolean isWhitelistFile(final String fileName) {
+        if (isJournalWhitelist()) {
+            return fileName.equals("WhitelistedPlayers.snapshot") || fileName.equals("WhitelistedPlayers.journal");
+        }
+        return fileName.equals("WhitelistedPlayers.yml");
+    }
+
+    private void loadLanguage() {
+        createLanguageFile();
+        final Config language = new Config(new File(plugin.getDataFolder(), "language-" + languageName + ".yml"));
+        try {
+            language.load();
+        } catch (final IOException e) {
+            throw new RuntimeException("Unable to load Maintenance language file - probably a malformed file", e);
+        }
+        setLanguage(language);
+    }
+
+    private void setLanguage(final Config language) {
+        this.language = language;
         try {
-            whitelist.save();
+            updateLanguageFile();
         } catch (final IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Couldn't save the whitelisted players file!", e);
+            plugin.getLogger().log(Level.SEVERE, "Couldn't update language file", e);
         }
+
+        prefixString = language.getString("prefix");
+        messageTemplates = new ConcurrentHashMap<>();
+        parsedMessages.clear();
     }
 
     private void createLanguageFile() {
@@ -176,71 +328,14 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
     private void loadSettings() {
         updateConfig();
 
-        final ConfigSection pingMessageSection = config.getSection("ping-message");
-        enablePingMessages = pingMessageSection.getBoolean("enabled", true);
-        // Can't store this pre-parsed as components because gradients will break replacements
-        pingMessages = loadPingMessages(pingMessageSection.getStringList("messages"));
-        if (pingMessageSection.getBoolean("enable-timer-specific-messages")) {
-            timerSpecificPingMessages = loadPingMessages(pingMessageSection.getStringList("timer-messages"));
-        } else {
-            timerSpecificPingMessages = null;
-        }
-
-        maintenance = config.getBoolean("maintenance-enabled");
-        commandsOnMaintenanceEnable = config.getStringList("commands-on-maintenance-enable");
-        commandsOnMaintenanceDisable = config.getStringList("commands-on-maintenance-disable");
-        customMaintenanceIcon = config.getBoolean("custom-maintenance-icon");
-        joinNotifications = config.getBoolean("send-join-notification");
-        broadcastIntervals = new HashSet<>(config.getIntList("timer-broadcast-for-seconds"));
-
-        // Player count and player list hover messages are only accepted and rendered as legacy chat
-        if (plugin.getServerType() != ServerType.SPONGE) {
-            final ConfigSection playerCountMessageSection = config.getSection("player-count-message");
-            customPlayerCountMessage = playerCountMessageSection.getBoolean("enabled");
-            legacyParsedPlayerCountMessage = toLegacy(parse(getConfigMessage(playerCountMessageSection, "message")));
-            if (playerCountMessageSection.getBoolean("enable-timer-specific-message")) {
-                legacyParsedTimerPlayerCountMessage = toLegacy(parse(getConfigMessage(playerCountMessageSection, "timer-message")));
-            } else {
-                legacyParsedTimerPlayerCountMessage = null;
-            }
+        // Build everything derived from the config first, then publish it at once
+        final SettingsSnapshot snapshot = new SettingsSnapshot(this, config, plugin.getServerType());
+        this.snapshot = snapshot;
+        if (!hasExternalMaintenanceState()) {
+            maintenance = config.getBoolean("maintenance-enabled");
         }
-
-        final ConfigSection listHoverMessageSection = config.getSection("player-list-hover-message");
-        customPlayerCountHoverMessage = listHoverMessageSection.getBoolean("enabled");
-        legacyParsedPlayerCountHoverLines = new ArrayList<>();
-        for (final String line : listHoverMessageSection.getString("message").split("<br>")) {
-            legacyParsedPlayerCountHoverLines.add(toLegacy(parse(line)));
-        }
-        if (listHoverMessageSection.getBoolean("enable-timer-specific-message")) {
-            legacyParsedTimerPlayerCountHoverLines = new ArrayList<>();
-            for (final String line : listHoverMessageSection.getString("timer-message").split("<br>")) {
-                legacyParsedTimerPlayerCountHoverLines.add(toLegacy(parse(line)));
-            }
-        } else {
-            legacyParsedTimerPlayerCountHoverLines = null;
-        }
-
         languageName = config.getString("language").toLowerCase();
-        kickOnlinePlayers = config.getBoolean("kick-online-players", true);
-        updateChecks = config.getBoolean("update-checks", true);
-        debug = config.getBoolean("debug");
-
-        final ConfigSection section = config.getSection("continue-endtimer-after-restart");
-        saveEndtimerOnStop = section.getBoolean("enabled");
-        savedEndtimer = section.getLong("end");
-
-        if (customMaintenanceIcon) {
-            plugin.loadMaintenanceIcon();
-        }
-
-        whitelistedPlayers.clear();
-        for (final Map.Entry<String, Object> entry : whitelist.getValues().entrySet()) {
-            try {
-                whitelistedPlayers.put(UUID.fromString(entry.getKey()), String.valueOf(entry.getValue()));
-            } catch (final IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid WhitelistedPlayers entry: " + entry.getKey());
-            }
-        }
+        savedEndtimer = config.getSection("continue-endtimer-after-restart").getLong("end");
 
         loadExtraSettings();
     }
@@ -361,7 +456,7 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
         return serialized.replaceAll("</[a-z_]+>", "");
     }
 
-    private String getConfigMessage(final ConfigSection section, final String path) {
+    String getConfigMessage(final ConfigSection section, final String path) {
         final String s = section.getString(path);
         if (s == null) {
             plugin.getLogger().warning("The config file is missing the following string: " + path);
@@ -375,101 +470,122 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
     }
 
     public String getLanguageString(final String path, final String... replacements) {
-        String s = language.getString(path);
-        if (s == null) {
+        return getMessageTemplate(path).render(replacements);
+    }
+
+    public @Nullable String getLanguageStringOrNull(final String path, final String... replacements) {
+        final MessageTemplate template = getMessageTemplateOrNull(path);
+        return template != null ? template.render(replacements) : null;
+    }
+
+    public Component getMessage(final String path, final String... replacements) {
+        final MessageTemplate template = getMessageTemplate(path);
+        return template.hasPlaceholders() ? parsedMessages.get(template.render(replacements)) : template.getComponent(this::parse);
+    }
+
+    /**
+     * Returns the compiled language message, with newlines and the prefix already resolved.
+     * Falls back to the path itself if the language file is missing the message.
+     *
+     * @param path path of the message in the language file
+     * @return compiled language message
+     */
+    public MessageTemplate getMessageTemplate(final String path) {
+        final MessageTemplate template = getMessageTemplateOrNull(path);
+        if (template == null) {
             plugin.getLogger().warning("The language file is missing the following string: " + path);
-            return path;
+            return MessageTemplate.compile(path);
         }
-        if (replacements.length != 0) {
-            if (replacements.length % 2 != 0) {
-                throw new IllegalArgumentException("Invalid replacement count: " + replacements.length);
-            }
+        return template;
+    }
 
-            for (int i = 0; i < replacements.length; i += 2) {
-                final String key = replacements[i];
-                s = s.replace(key, replacements[i + 1]);
-            }
-        }
-        return replaceNewlineVar(s).replace("<prefix>", prefixString);
+    public @Nullable MessageTemplate getMessageTemplateOrNull(final String path) {
+        // Compiled lazily, since server specific messages are nested by server name
+        return messageTemplates.computeIfAbsent(path, key -> {
+            final String s = language.getString(key, null);
+            return s != null ? MessageTemplate.compile(replaceNewlineVar(s).replace("<prefix>", prefixString)) : null;
+        });
     }
 
-    public @Nullable String getLanguageStringOrNull(final String path, final String... replacements) {
-        return language.contains(path) ? getLanguageString(path, replacements) : null;
+    /**
+     * Returns a fully rendered ping response, to be used in every status ping during maintenance.
+     *
+     * @return ping response with one of the motds chosen randomly
+     */
+    public PingResponse getPingResponse() {
+        return pingResponseCache.get();
     }
 
-    public Component getMessage(final String path, final String... replacements) {
-        return parse(getLanguageString(path, replacements));
+    public PingResponseCache getPingResponseCache() {
+        return pingResponseCache;
     }
 
-    // TODO Cache platform components if there are no replacements
     public Component getRandomPingMessage() {
-        if (plugin.isTaskRunning() && !plugin.getRunnable().shouldEnable()
-                && hasTimerSpecificPingMessages() && !timerSpecificPingMessages.isEmpty()) {
-            return getPingMessage(timerSpecificPingMessages);
-        }
-        return pingMessages.isEmpty() ? Component.empty() : getPingMessage(pingMessages);
+        return getPingResponse().getDescription();
     }
 
-    private Component getPingMessage(final List<String> list) {
-        final String component = list.size() == 1 ? list.get(0) : list.get(RANDOM.nextInt(list.size()));
-        return parse(plugin.replacePingVariables(component));
+    /**
+     * Returns the settings derived from the config, replaced as a whole on reloads.
+     *
+     * @return current settings snapshot
+     */
+    public SettingsSnapshot getSnapshot() {
+        return snapshot;
     }
 
-    private List<String> loadPingMessages(final List<String> list) {
-        final List<String> components = new ArrayList<>(list.size());
-        for (final String s : list) {
-            components.add(replaceNewlineVar(s));
-        }
-        return components;
+    /**
+     * Reloads the ping messages from the config after they have been changed by a command.
+     */
+    public void reloadPingMessages() {
+        snapshot = snapshot.withPingMessages(this, config.getSection("ping-message"));
+        pingResponseCache.invalidate();
+    }
+
+    boolean isTimerRunning() {
+        return plugin.isTaskRunning() && !plugin.getRunnable().shouldEnable();
     }
 
     @Override
     public boolean removeWhitelistedPlayer(final UUID uuid) {
-        if (whitelistedPlayers.remove(uuid) == null) {
-            return false;
-        }
-
-        whitelist.remove(uuid.toString());
-        saveWhitelistedPlayers();
-        return true;
+        return whitelist.remove(uuid);
     }
 
     @Override
     public boolean removeWhitelistedPlayer(final String name) {
-        UUID uuid = null;
-        for (final Map.Entry<UUID, String> e : whitelistedPlayers.entrySet()) {
-            if (e.getValue().equalsIgnoreCase(name)) {
-                uuid = e.getKey();
-                break;
-            }
-        }
-
-        if (uuid == null) {
-            return false;
-        }
-
-        whitelistedPlayers.remove(uuid);
-        whitelist.remove(uuid.toString());
-        saveWhitelistedPlayers();
-        return true;
+        return whitelist.remove(name) != null;
     }
 
     @Override
     public boolean addWhitelistedPlayer(final UUID uuid, final String name) {
-        final boolean added = whitelistedPlayers.put(uuid, name) == null;
-        whitelist.set(uuid.toString(), name);
-        saveWhitelistedPlayers();
-        return added;
+        return whitelist.add(uuid, name);
+    }
+
+    /**
+     * Adds all given players and synchronously saves the whitelist once.
+     *
+     * @param players players mapped by uuid
+     * @return number of players that were not whitelisted before
+     */
+    public int addWhitelistedPlayers(final Map<UUID, String> players) {
+        return whitelist.addAll(players);
     }
 
     @Override
     public Map<UUID, String> getWhitelistedPlayers() {
-        return whitelistedPlayers;
+        return whitelist.getPlayers();
     }
 
     @Override
     public boolean isWhitelisted(final UUID uuid) {
-        return whitelistedPlayers.containsKey(uuid);
+        return whitelist.contains(uuid);
+    }
+
+    public ConfigWriter getConfigWriter() {
+        return configWriter;
+    }
+
+    public WhitelistStore getWhitelist() {
+        return whitelist;
     }
 
     @Override
@@ -479,42 +595,55 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
 
     public void setMaintenance(final boolean maintenance) {
         this.maintenance = maintenance;
+        pingResponseCache.invalidate();
     }
 
     @Override
     public boolean isEnablePingMessages() {
-        return enablePingMessages;
+        return snapshot.isEnablePingMessages();
     }
 
     @Override
     public boolean isJoinNotifications() {
-        return joinNotifications;
+        return snapshot.isJoinNotifications();
     }
 
     @Override
     public boolean hasCustomIcon() {
-        return customMaintenanceIcon;
+        return snapshot.hasCustomIcon();
     }
 
     @Override
     public boolean debugEnabled() {
-        return debug;
+        return snapshot.isDebug();
     }
 
     public boolean hasUpdateChecks() {
-        return updateChecks;
+        return snapshot.hasUpdateChecks();
+    }
+
+    public int getUpdateCheckInterval() {
+        return snapshot.getUpdateCheckInterval();
     }
 
     public boolean isSaveEndtimerOnStop() {
-        return saveEndtimerOnStop;
+        return snapshot.isSaveEndtimerOnStop();
     }
 
     public boolean hasTimerSpecificPingMessages() {
-        return timerSpecificPingMessages != null;
+        return snapshot.hasTimerSpecificPingMessages();
     }
 
     public boolean isKickOnlinePlayers() {
-        return kickOnlinePlayers;
+        return snapshot.isKickOnlinePlayers();
+    }
+
+    public boolean hasAdmissionQueue() {
+        return snapshot.hasAdmissionQueue();
+    }
+
+    public boolean isPreLoginCheck() {
+        return snapshot.isPreLoginCheck();
     }
 
     public long getSavedEndtimer() {
@@ -536,45 +665,36 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
     }
 
     public List<String> getPingMessages() {
-        return pingMessages;
+        return snapshot.getPingMessages();
     }
 
     public List<String> getCommandsOnMaintenanceEnable() {
-        return commandsOnMaintenanceEnable;
+        return snapshot.getCommandsOnMaintenanceEnable();
     }
 
     public List<String> getCommandsOnMaintenanceDisable() {
-        return commandsOnMaintenanceDisable;
+        return snapshot.getCommandsOnMaintenanceDisable();
     }
 
     public @Nullable List<String> getTimerSpecificPingMessages() {
-        return timerSpecificPingMessages;
+        return snapshot.getTimerSpecificPingMessages();
     }
 
     public Set<Integer> getBroadcastIntervals() {
-        return broadcastIntervals;
+        return snapshot.getBroadcastIntervals();
     }
 
     public String getLegacyParsedPlayerCountMessage() {
-        final String message = timerDependent(legacyParsedPlayerCountMessage, legacyParsedTimerPlayerCountMessage);
-        return plugin.replacePingVariables(message);
+        return getPingResponse().getPlayerCountMessage();
     }
 
     public String[] getLegacyParsedPlayerCountHoverLines() {
-        final List<String> lines = timerDependent(legacyParsedPlayerCountHoverLines, legacyParsedTimerPlayerCountHoverLines);
-        final String[] parsedLines = new String[lines.size()];
-        for (int i = 0; i < lines.size(); i++) {
-            parsedLines[i] = plugin.replacePingVariables(lines.get(i));
-        }
-        return parsedLines;
-    }
-
-    private <T> T timerDependent(final T normal, final @Nullable T timerSpecific) {
-        return timerSpecific != null && plugin.isTaskRunning() && !plugin.getRunnable().shouldEnable() ? timerSpecific : normal;
+        return getPingResponse().getPlayerCountHoverLines().clone();
     }
 
     public Component getKickMessage() {
-        return parse(plugin.replacePingVariables(getLanguageString("kickmessage")));
+        final MessageTemplate template = getMessageTemplate("kickmessage");
+        return template.hasPlaceholders() ? parsedMessages.get(plugin.replacePingVariables(template)) : template.getComponent(this::parse);
     }
 
     public String getLanguage() {
@@ -582,17 +702,27 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
     }
 
     public boolean hasCustomPlayerCountMessage() {
-        return customPlayerCountMessage;
+        return snapshot.hasCustomPlayerCountMessage();
     }
 
     public boolean hasCustomPlayerCountHoverMessage() {
-        return customPlayerCountHoverMessage;
+        return snapshot.hasCustomPlayerCountHoverMessage();
     }
 
     protected Component parse(final String s) {
         return MiniMessage.miniMessage().deserialize(s);
     }
 
+    /**
+     * Parses a rendered language message, reusing the result for identical messages for a short while.
+     *
+     * @param s rendered message
+     * @return parsed message
+     */
+    protected Component parseRendered(final String s) {
+        return parsedMessages.get(s);
+    }
+
     protected String toLegacy(final Component component) {
         return LegacyComponentSerializer.legacySection().serialize(component);
     }
@@ -613,4 +743,11 @@ public class Settings implements eu.kennytv.maintenance.api.Settings {
 
     protected void loadExtraSettings() {
     }
+
+    /**
+     * @return true if the maintenance state is loaded from somewhere else than the config, and kept when reloading it
+     */
+    protected boolean hasExternalMaintenanceState() {
+        return false;
+    }
 }
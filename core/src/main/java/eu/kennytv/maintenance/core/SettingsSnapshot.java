@@ -0,0 +1,284 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core;
+
+import eu.kennytv.maintenance.core.config.ConfigSection;
+import eu.kennytv.maintenance.core.util.ServerType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable settings derived from the config file, fully built before being published by {@link Settings}.
+ * <p>
+ * Readers should get the snapshot once and use it for everything they need, so that they never see half-reloaded settings.
+ */
+public final class SettingsSnapshot {
+    private final boolean enablePingMessages;
+    private final List<String> pingMessages;
+    private final List<String> timerSpecificPingMessages;
+    private final List<String> commandsOnMaintenanceEnable;
+    private final List<String> commandsOnMaintenanceDisable;
+    private final Set<Integer> broadcastIntervals;
+    private final boolean customPlayerCountMessage;
+    private final String legacyParsedPlayerCountMessage;
+    private final String legacyParsedTimerPlayerCountMessage;
+    private final boolean customPlayerCountHoverMessage;
+    private final List<String> legacyParsedPlayerCountHoverLines;
+    private final List<String> legacyParsedTimerPlayerCountHoverLines;
+    private final boolean customMaintenanceIcon;
+    private final boolean joinNotifications;
+    private final boolean kickOnlinePlayers;
+    private final boolean admissionQueue;
+    private final int admissionQueueDuration;
+    private final int admissionQueueLoginsPerSecond;
+    private final boolean preLoginCheck;
+    private final long rememberDeniedPlayersMillis;
+    private final boolean updateChecks;
+    private final int updateCheckInterval;
+    private final boolean watchFiles;
+    private final boolean saveEndtimerOnStop;
+    private final boolean debug;
+
+    SettingsSnapshot(final Settings settings, final ConfigSection config, final ServerType serverType) {
+        final ConfigSection pingMessageSection = config.getSection("ping-message");
+        enablePingMessages = pingMessageSection.getBoolean("enabled", true);
+        // Can't store this pre-parsed as components because gradients will break replacements
+        pingMessages = loadPingMessages(settings, pingMessageSection.getStringList("messages"));
+        if (pingMessageSection.getBoolean("enable-timer-specific-messages")) {
+            timerSpecificPingMessages = loadPingMessages(settings, pingMessageSection.getStringList("timer-messages"));
+        } else {
+            timerSpecificPingMessages = null;
+        }
+
+        commandsOnMaintenanceEnable = Collections.unmodifiableList(config.getStringList("commands-on-maintenance-enable"));
+        commandsOnMaintenanceDisable = Collections.unmodifiableList(config.getStringList("commands-on-maintenance-disable"));
+        customMaintenanceIcon = config.getBoolean("custom-maintenance-icon");
+        joinNotifications = config.getBoolean("send-join-notification");
+        broadcastIntervals = Collections.unmodifiableSet(new HashSet<>(config.getIntList("timer-broadcast-for-seconds")));
+
+        // Player count and player list hover messages are only accepted and rendered as legacy chat
+        if (serverType != ServerType.SPONGE) {
+            final ConfigSection playerCountMessageSection = config.getSection("player-count-message");
+            customPlayerCountMessage = playerCountMessageSection.getBoolean("enabled");
+            legacyParsedPlayerCountMessage = settings.toLegacy(settings.parse(settings.getConfigMessage(playerCountMessageSection, "message")));
+            if (playerCountMessageSection.getBoolean("enable-timer-specific-message")) {
+                legacyParsedTimerPlayerCountMessage = settings.toLegacy(settings.parse(settings.getConfigMessage(playerCountMessageSection, "timer-message")));
+            } else {
+                legacyParsedTimerPlayerCountMessage = null;
+            }
+        } else {
+            customPlayerCountMessage = false;
+            legacyParsedPlayerCountMessage = null;
+            legacyParsedTimerPlayerCountMessage = null;
+        }
+
+        final ConfigSection listHoverMessageSection = config.getSection("player-list-hover-message");
+        customPlayerCountHoverMessage = listHoverMessageSection.getBoolean("enabled");
+        legacyParsedPlayerCountHoverLines = loadHoverLines(settings, listHoverMessageSection.getString("message"));
+        if (listHoverMessageSection.getBoolean("enable-timer-specific-message")) {
+            legacyParsedTimerPlayerCountHoverLines = loadHoverLines(settings, listHoverMessageSection.getString("timer-message"));
+        } else {
+            legacyParsedTimerPlayerCountHoverLines = null;
+        }
+
+        kickOnlinePlayers = config.getBoolean("kick-online-players", true);
+        final ConfigSection admissionQueueSection = config.getSection("admission-queue");
+        admissionQueue = admissionQueueSection.getBoolean("enabled");
+        admissionQueueDuration = Math.max(1, admissionQueueSection.getInt("duration", 5));
+        admissionQueueLoginsPerSecond = Math.max(1, admissionQueueSection.getInt("logins-per-second", 20));
+        final ConfigSection preLoginCheckSection = config.getSection("pre-login-check");
+        preLoginCheck = preLoginCheckSection.getBoolean("enabled");
+        rememberDeniedPlayersMillis = TimeUnit.MINUTES.toMillis(Math.max(1, preLoginCheckSection.getInt("remember-denied-players", 5)));
+        updateChecks = config.getBoolean("update-checks", true);
+        updateCheckInterval = Math.max(1, config.getInt("update-check-interval", 180));
+        watchFiles = config.getBoolean("watch-files", true);
+        debug = config.getBoolean("debug");
+        saveEndtimerOnStop = config.getSection("continue-endtimer-after-restart").getBoolean("enabled");
+    }
+
+    private SettingsSnapshot(final SettingsSnapshot snapshot, final List<String> pingMessages, @Nullable final List<String> timerSpecificPingMessages) {
+        this.enablePingMessages = snapshot.enablePingMessages;
+        this.pingMessages = pingMessages;
+        this.timerSpecificPingMessages = timerSpecificPingMessages;
+        this.commandsOnMaintenanceEnable = snapshot.commandsOnMaintenanceEnable;
+        this.commandsOnMaintenanceDisable = snapshot.commandsOnMaintenanceDisable;
+        this.broadcastIntervals = snapshot.broadcastIntervals;
+        this.customPlayerCountMessage = snapshot.customPlayerCountMessage;
+        this.legacyParsedPlayerCountMessage = snapshot.legacyParsedPlayerCountMessage;
+        this.legacyParsedTimerPlayerCountMessage = snapshot.legacyParsedTimerPlayerCountMessage;
+        this.customPlayerCountHoverMessage = snapshot.customPlayerCountHoverMessage;
+        this.legacyParsedPlayerCountHoverLines = snapshot.legacyParsedPlayerCountHoverLines;
+        this.legacyParsedTimerPlayerCountHoverLines = snapshot.legacyParsedTimerPlayerCountHoverLines;
+        this.customMaintenanceIcon = snapshot.customMaintenanceIcon;
+        this.joinNotifications = snapshot.joinNotifications;
+        this.kickOnlinePlayers = snapshot.kickOnlinePlayers;
+        this.admissionQueue = snapshot.admissionQueue;
+        this.admissionQueueDuration = snapshot.admissionQueueDuration;
+        this.admissionQueueLoginsPerSecond = snapshot.admissionQueueLoginsPerSecond;
+        this.preLoginCheck = snapshot.preLoginCheck;
+        this.rememberDeniedPlayersMillis = snapshot.rememberDeniedPlayersMillis;
+        this.updateChecks = snapshot.updateChecks;
+        this.updateCheckInterval = snapshot.updateCheckInterval;
+        this.watchFiles = snapshot.watchFiles;
+        this.saveEndtimerOnStop = snapshot.saveEndtimerOnStop;
+        this.debug = snapshot.debug;
+    }
+
+    /**
+     * Returns a copy with the ping messages reloaded from the given section, leaving everything else as is.
+     */
+    SettingsSnapshot withPingMessages(final Settings settings, final ConfigSection pingMessageSection) {
+        final List<String> timerSpecificPingMessages = this.timerSpecificPingMessages != null
+                ? loadPingMessages(settings, pingMessageSection.getStringList("timer-messages")) : null;
+        return new SettingsSnapshot(this, loadPingMessages(settings, pingMessageSection.getStringList("messages")), timerSpecificPingMessages);
+    }
+
+    private static List<String> loadPingMessages(final Settings settings, final List<String> list) {
+        final List<String> messages = new ArrayList<>(list.size());
+        for (final String s : list) {
+            messages.add(settings.replaceNewlineVar(s));
+        }
+        return Collections.unmodifiableList(messages);
+    }
+
+    private static List<String> loadHoverLines(final Settings settings, final String message) {
+        final List<String> lines = new ArrayList<>();
+        for (final String line : message.split(Settings.NEW_LINE_REPLACEMENT)) {
+            lines.add(settings.toLegacy(settings.parse(line)));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    List<String> getActivePingMessages(final boolean timerRunning) {
+        if (timerRunning && timerSpecificPingMessages != null && !timerSpecificPingMessages.isEmpty()) {
+            return timerSpecificPingMessages;
+        }
+        return pingMessages;
+    }
+
+    @Nullable
+    String getRawPlayerCountMessage(final boolean timerRunning) {
+        return timerRunning && legacyParsedTimerPlayerCountMessage != null ? legacyParsedTimerPlayerCountMessage : legacyParsedPlayerCountMessage;
+    }
+
+    List<String> getRawPlayerCountHoverLines(final boolean timerRunning) {
+        return timerRunning && legacyParsedTimerPlayerCountHoverLines != null ? legacyParsedTimerPlayerCountHoverLines : legacyParsedPlayerCountHoverLines;
+    }
+
+    public boolean isEnablePingMessages() {
+        return enablePingMessages;
+    }
+
+    public List<String> getPingMessages() {
+        return pingMessages;
+    }
+
+    public @Nullable List<String> getTimerSpecificPingMessages() {
+        return timerSpecificPingMessages;
+    }
+
+    public boolean hasTimerSpecificPingMessages() {
+        return timerSpecificPingMessages != null;
+    }
+
+    public List<String> getCommandsOnMaintenanceEnable() {
+        return commandsOnMaintenanceEnable;
+    }
+
+    public List<String> getCommandsOnMaintenanceDisable() {
+        return commandsOnMaintenanceDisable;
+    }
+
+    public Set<Integer> getBroadcastIntervals() {
+        return broadcastIntervals;
+    }
+
+    public boolean hasCustomPlayerCountMessage() {
+        return customPlayerCountMessage;
+    }
+
+    public boolean hasCustomPlayerCountHoverMessage() {
+        return customPlayerCountHoverMessage;
+    }
+
+    public boolean hasCustomIcon() {
+        return customMaintenanceIcon;
+    }
+
+    public boolean isJoinNotifications() {
+        return joinNotifications;
+    }
+
+    public boolean isKickOnlinePlayers() {
+        return kickOnlinePlayers;
+    }
+
+    public boolean hasAdmissionQueue() {
+        return admissionQueue;
+    }
+
+    /**
+     * @return minutes after maintenance has been disabled during which logins are limited
+     */
+    public int getAdmissionQueueDuration() {
+        return admissionQueueDuration;
+    }
+
+    public int getAdmissionQueueLoginsPerSecond() {
+        return admissionQueueLoginsPerSecond;
+    }
+
+    public boolean isPreLoginCheck() {
+        return preLoginCheck;
+    }
+
+    /**
+     * @return milliseconds players refused by the full login check are refused early for
+     */
+    public long getRememberDeniedPlayersMillis() {
+        return rememberDeniedPlayersMillis;
+    }
+
+    public boolean hasUpdateChecks() {
+        return updateChecks;
+    }
+
+    /**
+     * @return minutes a fetched update check result is reused for
+     */
+    public int getUpdateCheckInterval() {
+        return updateCheckInterval;
+    }
+
+    public boolean isWatchFiles() {
+        return watchFiles;
+    }
+
+    public boolean isSaveEndtimerOnStop() {
+        return saveEndtimerOnStop;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+}
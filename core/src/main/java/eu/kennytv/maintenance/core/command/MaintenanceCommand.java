@@ -34,6 +34,8 @@ import eu.kennytv.maintenance.core.command.subcommand.ToggleCommand;
 import eu.kennytv.maintenance.core.command.subcommand.UpdateCommand;
 import eu.kennytv.maintenance.core.command.subcommand.WhitelistAddCommand;
 import eu.kennytv.maintenance.core.command.subcommand.WhitelistCommand;
+import eu.kennytv.maintenance.core.command.subcommand.WhitelistExportCommand;
+import eu.kennytv.maintenance.core.command.subcommand.WhitelistImportCommand;
 import eu.kennytv.maintenance.core.command.subcommand.WhitelistRemoveCommand;
 import eu.kennytv.maintenance.core.util.SenderInfo;
 import java.time.Duration;
@@ -70,6 +72,8 @@ public abstract class MaintenanceCommand {
         add(new WhitelistCommand(plugin), "whitelist");
         add(new WhitelistAddCommand(plugin), "add");
         add(new WhitelistRemoveCommand(plugin), "remove");
+        add(new WhitelistImportCommand(plugin), "import");
+        add(new WhitelistExportCommand(plugin), "export");
 
         add(new SetMotdCommand(plugin), "setmotd");
         add(new RemoveMotdCommand(plugin), "removemotd");
@@ -25,7 +25,12 @@ import eu.kennytv.maintenance.lib.kyori.adventure.text.TextComponent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.event.ClickEvent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.event.HoverEvent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.format.NamedTextColor;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 public final class DumpCommand extends CommandInfo {
     private long lastDump;
@@ -36,6 +41,10 @@ public final class DumpCommand extends CommandInfo {
 
     @Override
     public void execute(final SenderInfo sender, final String[] args) {
+        if (args.length == 2 && args[1].equalsIgnoreCase("file")) {
+            writeDumpFile(sender);
+            return;
+        }
         if (checkArgs(sender, args, 1)) return;
         if (System.currentTimeMillis() - lastDump < TimeUnit.MINUTES.toMillis(5)) {
             sender.sendPrefixedRich("<red>You can only create a dump every 5 minutes!");
@@ -64,4 +73,25 @@ public final class DumpCommand extends CommandInfo {
             }
         });
     }
+
+    private void writeDumpFile(final SenderInfo sender) {
+        sender.sendPrefixedRich("<gray>The dump is being written, this might take a moment.");
+        plugin.async(() -> {
+            final File file;
+            try {
+                file = plugin.writeDumpFile();
+            } catch (final IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not write dump :(", e);
+                sender.sendPrefixedRich("<red>Could not write dump (see the console for details)");
+                return;
+            }
+
+            sender.sendPrefixedRich("<gray>The dump has been written to <yellow>" + plugin.getDataFolder().getName() + "/dumps/" + file.getName());
+        });
+    }
+
+    @Override
+    public List<String> getTabCompletion(final SenderInfo sender, final String[] args) {
+        return args.length == 2 ? Collections.singletonList("file") : Collections.emptyList();
+    }
 }
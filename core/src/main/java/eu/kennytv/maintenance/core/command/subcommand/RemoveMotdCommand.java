@@ -67,10 +67,9 @@ public final class RemoveMotdCommand extends CommandInfo {
             return;
         }
 
-        final List<String> pingComponents = timerPingMessages ? settings.getTimerSpecificPingMessages() : settings.getPingMessages();
-        pingComponents.remove(index - 1);
         pingMessages.remove(index - 1);
         section.set(timerPingMessages ? "timer-messages" : "messages", pingMessages);
+        settings.reloadPingMessages();
         settings.saveConfig();
         sender.send(getMessage("removedMotd", "%INDEX%", args[1]));
     }
@@ -54,7 +54,6 @@ public final class SetMotdCommand extends CommandInfo {
         }
 
         final Settings settings = getSettings();
-        final List<String> pingComponents = timerPingMessages ? settings.getTimerSpecificPingMessages() : settings.getPingMessages();
         final ConfigSection section = settings.getConfig().getSection("ping-message");
         final List<String> pingMessages = section.getStringList(timerPingMessages ? "timer-messages" : "messages");
         final int index = Integer.parseInt(args[1]);
@@ -87,17 +86,16 @@ public final class SetMotdCommand extends CommandInfo {
                     oldMessage.split(NEW_LINE_REPLACEMENT, 2)[0] + NEW_LINE_REPLACEMENT + message : oldMessage + NEW_LINE_REPLACEMENT + message;
         }
 
-        // Replace component in config and the cached list
+        // Replace component in config and reload the cached list
         final String componentString = newMessage.replace(NEW_LINE_REPLACEMENT, "\n");
         if (index > pingMessages.size()) {
             pingMessages.add(newMessage);
-            pingComponents.add(componentString);
         } else {
             pingMessages.set(index - 1, newMessage);
-            pingComponents.set(index - 1, componentString);
         }
 
         section.set(timerPingMessages ? "timer-messages" : "messages", pingMessages);
+        settings.reloadPingMessages();
         settings.saveConfig();
         sender.send(settings.getMessage(
                 "setMotd",
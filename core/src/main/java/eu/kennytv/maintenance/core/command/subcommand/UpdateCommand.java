@@ -20,11 +20,15 @@ package eu.kennytv.maintenance.core.command.subcommand;
 import eu.kennytv.maintenance.core.MaintenancePlugin;
 import eu.kennytv.maintenance.core.command.CommandInfo;
 import eu.kennytv.maintenance.core.util.SenderInfo;
+import eu.kennytv.maintenance.core.util.UpdateInstaller;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.event.ClickEvent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.event.HoverEvent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.format.NamedTextColor;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.minimessage.MiniMessage;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Level;
 
 public final class UpdateCommand extends CommandInfo {
 
@@ -35,35 +39,34 @@ public final class UpdateCommand extends CommandInfo {
     @Override
     public void execute(final SenderInfo sender, final String[] args) {
         if (checkArgs(sender, args, 1)) return;
-        if (args[0].equalsIgnoreCase("update")) {
-            plugin.async(() -> checkForUpdate(sender));
-            return;
-        }
-
-        if (!plugin.updateAvailable()) {
-            sender.sendPrefixedRich("<green>You already have the latest version of the plugin!");
-            return;
-        }
-
-        sender.send(getMessage("updateDownloading"));
-        try {
-            if (plugin.installUpdate()) {
-                sender.send(getMessage("updateFinished"));
+        plugin.checkForUpdate().thenAccept(updateAvailable -> {
+            if (!updateAvailable) {
+                sender.sendPrefixedRich("<green>You already have the latest version of the plugin!");
+            } else if (args[0].equalsIgnoreCase("update")) {
+                sendUpdateNotice(sender);
             } else {
-                sender.send(getMessage("updateFailed"));
+                plugin.async(() -> installUpdate(sender));
             }
-        } catch (final Exception e) {
-            sender.send(getMessage("updateFailed"));
-            e.printStackTrace();
-        }
+        });
     }
 
-    private void checkForUpdate(final SenderInfo sender) {
-        if (!plugin.updateAvailable()) {
-            sender.sendPrefixedRich("<green>You already have the latest version of the plugin!");
+    private void installUpdate(final SenderInfo sender) {
+        sender.send(getMessage("updateDownloading"));
+        final UpdateInstaller.Result result;
+        try {
+            result = plugin.installUpdate();
+        } catch (final IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Error while installing the update", e);
+            sender.send(getMessage("updateFailed"));
             return;
         }
 
+        sender.sendPrefixedRich(String.format(Locale.ROOT, "<gray>Downloaded and verified %.2f MB in %.1f seconds (%.2f MB/s)",
+                result.getBytes() / 1_048_576D, result.getMillis() / 1000D, result.getBytesPerSecond() / 1_048_576D));
+        sender.send(getMessage("updateFinished"));
+    }
+
+    private void sendUpdateNotice(final SenderInfo sender) {
         sender.sendPrefixedRich("<red>Newest version available: <green>Version " + plugin.getNewestVersion() + "<red>, you're on <green>" + plugin.getVersion());
         sender.sendPrefixedRich("<b><red>WARNING: <red>You will have to restart the server to prevent further issues and to complete the update! If you can't do that, don't update!");
 
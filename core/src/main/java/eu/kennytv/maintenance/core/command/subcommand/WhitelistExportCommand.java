@@ -0,0 +1,57 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.command.subcommand;
+
+import eu.kennytv.maintenance.core.MaintenancePlugin;
+import eu.kennytv.maintenance.core.command.CommandInfo;
+import eu.kennytv.maintenance.core.util.SenderInfo;
+import eu.kennytv.maintenance.core.whitelist.WhitelistFiles;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+
+public final class WhitelistExportCommand extends CommandInfo {
+
+    public WhitelistExportCommand(final MaintenancePlugin plugin) {
+        super(plugin, "whitelist.export");
+    }
+
+    @Override
+    public void execute(final SenderInfo sender, final String[] args) {
+        if (checkArgs(sender, args, 2)) return;
+
+        final Path file = WhitelistFiles.resolve(plugin.getDataFolder(), args[1]);
+        if (file == null) {
+            sender.send(getMessage("whitelistFileNotFound", "%FILE%", args[1]));
+            return;
+        }
+
+        plugin.async(() -> {
+            final int exported;
+            try {
+                exported = WhitelistFiles.write(file, getSettings().getWhitelistedPlayers());
+            } catch (final IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Error while writing " + file, e);
+                sender.send(getMessage("whitelistFileError", "%FILE%", args[1]));
+                return;
+            }
+
+            sender.send(getMessage("whitelistExported", "%AMOUNT%", Integer.toString(exported), "%FILE%", args[1]));
+        });
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.command.subcommand;
+
+import eu.kennytv.maintenance.core.MaintenancePlugin;
+import eu.kennytv.maintenance.core.command.CommandInfo;
+import eu.kennytv.maintenance.core.util.SenderInfo;
+import eu.kennytv.maintenance.core.whitelist.WhitelistFiles;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.logging.Level;
+
+public final class WhitelistImportCommand extends CommandInfo {
+
+    public WhitelistImportCommand(final MaintenancePlugin plugin) {
+        super(plugin, "whitelist.import");
+    }
+
+    @Override
+    public void execute(final SenderInfo sender, final String[] args) {
+        if (checkArgs(sender, args, 2)) return;
+
+        final Path file = WhitelistFiles.resolve(plugin.getDataFolder(), args[1]);
+        if (file == null || !Files.isRegularFile(file)) {
+            sender.send(getMessage("whitelistFileNotFound", "%FILE%", args[1]));
+            return;
+        }
+
+        sender.send(getMessage("whitelistImportStarted", "%FILE%", args[1]));
+        plugin.async(() -> {
+            final Map<UUID, String> players = new LinkedHashMap<>();
+            // Names only need to be looked up once, regardless of their case
+            final Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            final int invalidLines;
+            try {
+                invalidLines = WhitelistFiles.read(file, players, names,
+                        lines -> sender.send(getMessage("whitelistImportProgress", "%AMOUNT%", Integer.toString(lines))));
+            } catch (final IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Error while reading " + file, e);
+                sender.send(getMessage("whitelistFileError", "%FILE%", args[1]));
+                return;
+            }
+
+            int missing = 0;
+            final List<String> failedNames = new ArrayList<>();
+            if (!names.isEmpty()) {
+                sender.send(getMessage("whitelistImportLookup", "%AMOUNT%", Integer.toString(names.size())));
+                final Map<String, SenderInfo> foundPlayers;
+                try {
+                    foundPlayers = plugin.lookupPlayers(names, failedNames);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                for (final SenderInfo player : foundPlayers.values()) {
+                    players.putIfAbsent(player.getUuid(), player.getName());
+                }
+                missing = names.size() - foundPlayers.size() - failedNames.size();
+            }
+
+            final int added = getSettings().addWhitelistedPlayers(players);
+            sender.send(getMessage("whitelistImported",
+                    "%ADDED%", Integer.toString(added),
+                    "%ALREADY%", Integer.toString(players.size() - added),
+                    "%MISSING%", Integer.toString(missing),
+                    "%FAILED%", Integer.toString(failedNames.size()),
+                    "%INVALID%", Integer.toString(invalidLines)));
+        });
+    }
+}
@@ -20,13 +20,18 @@ package eu.kennytv.maintenance.core.config;
 import com.google.common.collect.Sets;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
@@ -56,6 +61,7 @@ public final class Config extends ConfigSection {
     private final File file;
     private final Set<String> unsupportedFields;
     private Map<String, String[]> comments = new HashMap<>();
+    private volatile Map<String, Object> index = new ConcurrentHashMap<>();
     private String header;
 
     public Config(final File file, final String... unsupportedFields) {
@@ -91,6 +97,7 @@ public final class Config extends ConfigSection {
             }
             return false;
         });
+        rebuildIndex();
         if (removedFields) {
             save();
         }
@@ -101,12 +108,27 @@ public final class Config extends ConfigSection {
     }
 
     public void saveTo(final File file) throws IOException {
-        final byte[] bytes = toString().getBytes(StandardCharsets.UTF_8);
         if (file.getParentFile() != null) {
             file.getParentFile().mkdirs();
         }
-        file.createNewFile();
-        Files.write(file.toPath(), bytes);
+
+        // Write to a temporary file first, so that a crash never leaves a truncated file behind
+        final Path path = file.toPath();
+        final Path tempPath = path.resolveSibling(file.getName() + ".tmp");
+        try (final Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            synchronized (this) {
+                ConfigSerializer.serialize(writer, this.header, this.values, this.comments, this.yaml);
+            }
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public File getFile() {
+        return file;
     }
 
     public void replaceComments(final Config fromConfig) {
@@ -123,11 +145,73 @@ public final class Config extends ConfigSection {
     }
 
     public void clear() {
-        this.values.clear();
+        synchronized (this) {
+            this.values.clear();
+            rebuildIndex();
+        }
         this.comments.clear();
         this.header = null;
     }
 
+    /**
+     * Returns the value at the given full path, with sections being stored as {@link ConfigSection} views.
+     *
+     * @param path full path, with sections separated by dots
+     * @return value at the path, or null if not present
+     */
+    @Nullable
+    Object getIndexed(final String path) {
+        return index.get(path);
+    }
+
+    /**
+     * Rebuilds the index of full paths to values after the backing maps have been replaced or modified directly.
+     */
+    void rebuildIndex() {
+        final Map<String, Object> index = new ConcurrentHashMap<>();
+        for (final Map.Entry<String, Object> entry : values.entrySet()) {
+            indexValue(String.valueOf(entry.getKey()), entry.getValue(), index);
+        }
+        this.index = index;
+    }
+
+    /**
+     * Updates the index after a single value has been set or removed.
+     *
+     * @param path     full path of the changed value
+     * @param oldValue previous value, or null if there was none
+     * @param value    new value, or null if removed
+     */
+    void updateIndex(final String path, @Nullable final Object oldValue, @Nullable final Object value) {
+        final Map<String, Object> index = this.index;
+        if (oldValue instanceof Map) {
+            // Drop everything from the replaced section
+            final String prefix = path + ".";
+            index.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+        if (value != null) {
+            indexValue(path, value, index);
+        } else {
+            index.remove(path);
+        }
+    }
+
+    private void indexValue(final String path, @Nullable final Object value, final Map<String, Object> index) {
+        if (value == null) {
+            return;
+        }
+        if (!(value instanceof Map)) {
+            index.put(path, value);
+            return;
+        }
+
+        final Map<String, Object> sectionValues = (Map<String, Object>) value;
+        index.put(path, new ConfigSection(this, path, sectionValues));
+        for (final Map.Entry<String, Object> entry : sectionValues.entrySet()) {
+            indexValue(path + "." + entry.getKey(), entry.getValue(), index);
+        }
+    }
+
     public Map<String, String[]> getComments() {
         return comments;
     }
@@ -151,7 +235,7 @@ public final class Config extends ConfigSection {
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         return ConfigSerializer.serialize(this.header, this.values, this.comments, this.yaml);
     }
 }
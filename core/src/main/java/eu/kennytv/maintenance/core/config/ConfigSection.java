@@ -63,20 +63,12 @@ public class ConfigSection {
 
     @Nullable
     public Object getObject(final String key, final Object def) {
-        int nextSeparatorIndex = -1;
-        int sectionStartIndex;
-        ConfigSection section = this;
-        while ((nextSeparatorIndex = key.indexOf('.', sectionStartIndex = nextSeparatorIndex + 1)) != -1) {
-            section = section.getSection(key.substring(sectionStartIndex, nextSeparatorIndex));
-            if (section == null) return def;
-        }
-
-        final String subKey = key.substring(sectionStartIndex);
-        if (section == this) {
-            final Object result = values.get(subKey);
-            return result != null ? result : def;
+        // Single lookup of the full path in the root's flattened index
+        final Object o = getRoot().getIndexed(getFullKeyInPath(key));
+        if (o == null) {
+            return def;
         }
-        return section.getObject(subKey, def);
+        return o instanceof ConfigSection ? ((ConfigSection) o).values : o;
     }
 
     @Nullable
@@ -92,18 +84,18 @@ public class ConfigSection {
 
     @Nullable
     public ConfigSection getSection(final String key) {
-        final Object o = getObject(key);
-        if (!(o instanceof Map)) return null;
-        return new ConfigSection(getRoot(), getFullKeyInPath(key), (Map<String, Object>) o);
+        final Object o = getRoot().getIndexed(getFullKeyInPath(key));
+        return o instanceof ConfigSection ? (ConfigSection) o : null;
     }
 
     public ConfigSection getOrCreateSection(final String key) {
-        final Object o = getObject(key);
-        if (!(o instanceof Map)) {
-            set(key, new LinkedHashMap<>());
-            return getSection(key);
+        final ConfigSection section = getSection(key);
+        if (section != null) {
+            return section;
         }
-        return new ConfigSection(getRoot(), getFullKeyInPath(key), (Map<String, Object>) o);
+
+        set(key, new LinkedHashMap<>());
+        return getSection(key);
     }
 
     public boolean contains(final String key) {
@@ -111,19 +103,25 @@ public class ConfigSection {
     }
 
     public void set(final String key, @Nullable final Object value) {
-        int nextSeparatorIndex = -1;
-        int sectionStartIndex;
-        ConfigSection section = this;
-        while ((nextSeparatorIndex = key.indexOf('.', sectionStartIndex = nextSeparatorIndex + 1)) != -1) {
-            section = section.getOrCreateSection(key.substring(sectionStartIndex, nextSeparatorIndex));
-        }
+        // Configs may be serialized on another thread while being modified
+        synchronized (getRoot()) {
+            int nextSeparatorIndex = -1;
+            int sectionStartIndex;
+            ConfigSection section = this;
+            while ((nextSeparatorIndex = key.indexOf('.', sectionStartIndex = nextSeparatorIndex + 1)) != -1) {
+                section = section.getOrCreateSection(key.substring(sectionStartIndex, nextSeparatorIndex));
+            }
 
-        final String sectionKey = key.substring(sectionStartIndex);
-        if (value == null) {
-            section.values.remove(sectionKey);
-            getRoot().getComments().remove(getFullKeyInPath(key));
-        } else {
-            section.values.put(sectionKey, value);
+            final String sectionKey = key.substring(sectionStartIndex);
+            final String fullKey = getFullKeyInPath(key);
+            final Object oldValue;
+            if (value == null) {
+                oldValue = section.values.remove(sectionKey);
+                getRoot().getComments().remove(fullKey);
+            } else {
+                oldValue = section.values.put(sectionKey, value);
+            }
+            getRoot().updateIndex(fullKey, oldValue, value);
         }
     }
 
@@ -143,6 +141,12 @@ public class ConfigSection {
         return this.values.keySet();
     }
 
+    /**
+     * Returns the backing map of this section. Modifications have to be made through {@link #set(String, Object)},
+     * as they would otherwise not be reflected in lookups.
+     *
+     * @return backing map of this section
+     */
     public Map<String, Object> getValues() {
         return this.values;
     }
@@ -217,10 +221,20 @@ public class ConfigSection {
     }
 
     public boolean addMissingFields(final ConfigSection fromSection) {
+        synchronized (getRoot()) {
+            final boolean changed = addMissingFields(this.values, fromSection.values);
+            if (changed) {
+                getRoot().rebuildIndex();
+            }
+            return changed;
+        }
+    }
+
+    private static boolean addMissingFields(final Map<String, Object> values, final Map<String, Object> fromValues) {
         boolean changed = false;
-        for (final Map.Entry<String, Object> entry : fromSection.values.entrySet()) {
+        for (final Map.Entry<String, Object> entry : fromValues.entrySet()) {
             final String key = entry.getKey();
-            final Object value = this.values.get(key);
+            final Object value = values.get(key);
             if (value != null) {
                 // Go deeper for sections
                 final Object newValue = entry.getValue();
@@ -228,10 +242,10 @@ public class ConfigSection {
                     continue;
                 }
 
-                changed |= this.getSection(key).addMissingFields(fromSection.getSection(key));
+                changed |= addMissingFields((Map<String, Object>) value, (Map<String, Object>) newValue);
             } else {
                 // Value is missing
-                this.values.put(key, entry.getValue());
+                values.put(key, entry.getValue());
                 changed = true;
             }
         }
@@ -17,16 +17,23 @@
  */
 package eu.kennytv.maintenance.core.config;
 
-import org.yaml.snakeyaml.Yaml;
-
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
 
 /**
  * Further modified version of the <a href="https://github.com/PSandro/SimpleConfig">SimpleConfig</a>SimpleConfig project of PSandro.
+ * <p>
+ * Both directions work in a single pass over the lines, keeping track of the current key path on a stack.
  *
  * @author PSandro on 26.01.19
  * @author kennytv
@@ -34,84 +41,92 @@ import java.util.regex.Pattern;
 public final class ConfigSerializer {
 
     private static final String[] EMPTY = new String[0];
-    private static final String PATH_SEPARATOR_STRING = ".";
-    private static final String PATH_SEPARATOR_QUOTED = Pattern.quote(PATH_SEPARATOR_STRING);
+    private static final char PATH_SEPARATOR = '.';
     private static final int INDENT_UNIT = 2;
 
     public static String serialize(final String header, final Map<String, Object> data, final Map<String, String[]> comments, final Yaml yaml) {
-        if (data.isEmpty()) {
-            return yaml.dump(null);
+        final StringWriter writer = new StringWriter();
+        try {
+            serialize(writer, header, data, comments, yaml);
+        } catch (final IOException e) {
+            // Not thrown by a StringWriter
+            throw new UncheckedIOException(e);
         }
+        return writer.toString();
+    }
 
-        final String rawYaml = yaml.dump(data);
-        final StringBuilder fileData = new StringBuilder();
-        int currentKeyIndents = 0;
-        String key = "";
-        for (final String line : rawYaml.split("\n")) {
-            if (line.isEmpty()) continue;
-
-            final int indent = getIndents(line);
-            final int indents = indent / INDENT_UNIT;
-            final boolean keyLine;
-            final String substring = line.substring(indent);
-            if (substring.trim().isEmpty() || substring.charAt(0) == '-') {
-                keyLine = false;
-            } else if (indents <= currentKeyIndents) {
-                final String[] array = key.split(PATH_SEPARATOR_QUOTED);
-                final int backspace = currentKeyIndents - indents + 1;
-                key = join(array, array.length - backspace);
-                keyLine = true;
-            } else {
-                keyLine = line.indexOf(':') != -1;
-            }
-
-            if (!keyLine) {
-                // Nothing to do, go to next line
-                fileData.append(line).append('\n');
-                continue;
-            }
+    /**
+     * Dumps the data and writes it to the given writer, with comments inserted above their keys.
+     *
+     * @param writer   writer to write to, not closed by this method
+     * @param header   header to write before the data
+     * @param data     data to dump
+     * @param comments comments by their full key path
+     * @param yaml     yaml instance to dump the data with
+     * @throws IOException if writing fails
+     */
+    public static void serialize(final Writer writer, @Nullable final String header, final Map<String, Object> data,
+                                 @Nullable final Map<String, String[]> comments, final Yaml yaml) throws IOException {
+        if (data.isEmpty()) {
+            yaml.dump(null, writer);
+            return;
+        }
 
-            final String newKey = substring.split(Pattern.quote(":"))[0]; // Not sure about the quote thing, so I'll just keep it :aaa:
-            if (!key.isEmpty()) {
-                key += PATH_SEPARATOR_STRING;
-            }
-            key += newKey;
+        if (header != null && !header.isEmpty()) {
+            writer.write(header);
+        }
 
-            // Add comments if present
-            if (comments != null) {
-                final String[] strings = comments.get(key);
-                if (strings != null) {
-                    final String indentText = indent > 0 ? line.substring(0, indent) : "";
-                    for (final String comment : strings) {
-                        if (comment.isEmpty()) {
-                            fileData.append('\n');
-                        } else {
-                            fileData.append(indentText).append(comment).append('\n');
-                        }
-                    }
-                }
+        final CommentingWriter commentingWriter = new CommentingWriter(writer, comments);
+        try {
+            yaml.dump(data, commentingWriter);
+        } catch (final YAMLException e) {
+            // SnakeYAML wraps exceptions thrown by the writer
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
-
-            currentKeyIndents = indents;
-            fileData.append(line).append('\n');
+            throw e;
         }
-        return header != null && !header.isEmpty() ? header + fileData : fileData.toString();
+        commentingWriter.finish();
     }
 
     public static Map<String, String[]> deserializeComments(final String data) {
-        //TODO go through known yaml keys and figure out comments from there instead of from line to line?
-        // ... tho everything here would benefit from a cleanup
         final Map<String, String[]> comments = new HashMap<>();
         final List<String> currentComments = new ArrayList<>();
+        final KeyPath key = new KeyPath();
+        final char[] chars = data.toCharArray();
         boolean header = true;
         boolean multiLineValue = false;
         int currentIndents = 0;
-        String key = "";
-        for (final String line : data.split("\n")) {
-            final String s = line.trim();
+
+        // Trailing empty lines are ignored
+        int end = chars.length;
+        while (end > 0 && chars[end - 1] == '\n') {
+            end--;
+        }
+
+        int lineStart = 0;
+        while (lineStart <= end) {
+            int lineEnd = indexOf(chars, '\n', lineStart, end);
+            if (lineEnd == -1) {
+                lineEnd = end;
+            }
+
+            final int start = lineStart;
+            lineStart = lineEnd + 1;
+
+            // Bounds of the trimmed line
+            int trimmedStart = start;
+            int trimmedEnd = lineEnd;
+            while (trimmedStart < trimmedEnd && chars[trimmedStart] <= ' ') {
+                trimmedStart++;
+            }
+            while (trimmedEnd > trimmedStart && chars[trimmedEnd - 1] <= ' ') {
+                trimmedEnd--;
+            }
+
             // It's a comment!
-            if (s.startsWith("#")) {
-                currentComments.add(s);
+            if (trimmedStart != trimmedEnd && chars[trimmedStart] == '#') {
+                currentComments.add(new String(chars, trimmedStart, trimmedEnd - trimmedStart));
                 continue;
             }
 
@@ -126,18 +141,18 @@ public final class ConfigSerializer {
             }
 
             // Save empty lines as well
-            if (s.isEmpty()) {
-                currentComments.add(s);
+            if (trimmedStart == trimmedEnd) {
+                currentComments.add("");
                 continue;
             }
 
             // Multi line values?
-            if (s.startsWith("- |")) {
+            if (startsWith(chars, trimmedStart, trimmedEnd, "- |")) {
                 multiLineValue = true;
                 continue;
             }
 
-            final int indent = getIndents(line);
+            final int indent = getIndents(chars, start, lineEnd);
             final int indents = indent / INDENT_UNIT;
             // Check if the multi line value is over
             if (multiLineValue) {
@@ -148,30 +163,29 @@ public final class ConfigSerializer {
 
             // Check if this is a level lower
             if (indents <= currentIndents) {
-                final String[] array = key.split(PATH_SEPARATOR_QUOTED);
                 final int backspace = currentIndents - indents + 1;
-                final int delta = array.length - backspace;
-                key = delta >= 0 ? join(array, delta) : key;
+                if (backspace <= key.depth()) {
+                    key.pop(backspace);
+                }
             }
 
             // Finish current key
-            final String separator = key.isEmpty() ? "" : PATH_SEPARATOR_STRING;
-            final String lineKey = line.indexOf(':') != -1 ? line.split(Pattern.quote(":"))[0] : line;
-            key += separator + lineKey.substring(indent);
+            final int colonIndex = indexOf(chars, ':', start, lineEnd);
+            key.push(chars, start + indent, colonIndex != -1 ? colonIndex : lineEnd);
             currentIndents = indents;
 
             if (!currentComments.isEmpty()) {
-                comments.put(key, currentComments.toArray(EMPTY));
+                comments.put(key.toString(), currentComments.toArray(EMPTY));
                 currentComments.clear();
             }
         }
         return comments;
     }
 
-    private static int getIndents(final String line) {
+    private static int getIndents(final char[] chars, final int start, final int end) {
         int count = 0;
-        for (int i = 0; i < line.length(); i++) {
-            if (line.charAt(i) != ' ') {
+        for (int i = start; i < end; i++) {
+            if (chars[i] != ' ') {
                 break;
             }
 
@@ -180,9 +194,172 @@ public final class ConfigSerializer {
         return count;
     }
 
-    private static String join(final String[] array, final int length) {
-        final String[] copy = new String[length];
-        System.arraycopy(array, 0, copy, 0, length);
-        return String.join(PATH_SEPARATOR_STRING, copy);
+    private static int indexOf(final char[] chars, final char c, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(final char[] chars, final int start, final int end, final String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (chars[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writer processing the dumped yaml line by line, inserting comments above their keys.
+     */
+    private static final class CommentingWriter extends Writer {
+        private final KeyPath key = new KeyPath();
+        private final Writer out;
+        private final Map<String, String[]> comments;
+        private char[] line = new char[128];
+        private int lineLength;
+        private int currentKeyIndents;
+
+        private CommentingWriter(final Writer out, @Nullable final Map<String, String[]> comments) {
+            this.out = out;
+            this.comments = comments;
+        }
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                final char c = cbuf[i];
+                if (c == '\n') {
+                    writeLine();
+                    continue;
+                }
+
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[lineLength++] = c;
+            }
+        }
+
+        private void finish() throws IOException {
+            writeLine();
+        }
+
+        private void writeLine() throws IOException {
+            final int length = lineLength;
+            lineLength = 0;
+            if (length == 0) return;
+
+            final int indent = getIndents(line, 0, length);
+            final int indents = indent / INDENT_UNIT;
+            final boolean keyLine;
+            if (isBlank(line, indent, length) || line[indent] == '-') {
+                keyLine = false;
+            } else if (indents <= currentKeyIndents) {
+                key.pop(currentKeyIndents - indents + 1);
+                keyLine = true;
+            } else {
+                keyLine = indexOf(line, ':', 0, length) != -1;
+            }
+
+            if (!keyLine) {
+                // Nothing to do, go to next line
+                out.write(line, 0, length);
+                out.write('\n');
+                return;
+            }
+
+            final int colonIndex = indexOf(line, ':', indent, length);
+            key.push(line, indent, colonIndex != -1 ? colonIndex : length);
+
+            // Add comments if present
+            if (comments != null && !comments.isEmpty()) {
+                final String[] strings = comments.get(key.toString());
+                if (strings != null) {
+                    for (final String comment : strings) {
+                        if (!comment.isEmpty()) {
+                            out.write(line, 0, indent);
+                            out.write(comment);
+                        }
+                        out.write('\n');
+                    }
+                }
+            }
+
+            currentKeyIndents = indents;
+            out.write(line, 0, length);
+            out.write('\n');
+        }
+
+        private static boolean isBlank(final char[] chars, final int start, final int end) {
+            for (int i = start; i < end; i++) {
+                if (chars[i] > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+            // The underlying writer is closed by the caller
+        }
+    }
+
+    /**
+     * Dotted key path backed by a single builder, with the end index of every segment kept on a stack.
+     */
+    private static final class KeyPath {
+        private final StringBuilder path = new StringBuilder();
+        private int[] segmentEnds = new int[8];
+        private int depth;
+
+        private int depth() {
+            return depth;
+        }
+
+        private void pop(final int segments) {
+            depth = Math.max(0, depth - segments);
+            path.setLength(depth == 0 ? 0 : segmentEnds[depth - 1]);
+        }
+
+        private void push(final char[] chars, final int start, final int end) {
+            if (path.length() != 0) {
+                path.append(PATH_SEPARATOR);
+            }
+
+            // Keys containing the separator count as multiple segments
+            for (int i = start; i < end; i++) {
+                final char c = chars[i];
+                if (c == PATH_SEPARATOR) {
+                    pushSegmentEnd();
+                }
+                path.append(c);
+            }
+            pushSegmentEnd();
+        }
+
+        private void pushSegmentEnd() {
+            if (depth == segmentEnds.length) {
+                segmentEnds = Arrays.copyOf(segmentEnds, depth * 2);
+            }
+            segmentEnds[depth++] = path.length();
+        }
+
+        @Override
+        public String toString() {
+            return path.toString();
+        }
     }
 }
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.config;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves configs on a background thread, shortly after they have been modified.
+ * <p>
+ * All saves of a config requested until the write runs are coalesced into a single one.
+ */
+public final class ConfigWriter {
+    private static final long SAVE_DELAY_MILLIS = 200;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Maintenance Config Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Config> pendingConfigs = ConcurrentHashMap.newKeySet();
+    private final Object writeLock = new Object();
+    private final Logger logger;
+
+    public ConfigWriter(final Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Schedules the config to be saved, unless a save is already pending.
+     *
+     * @param config config to save
+     */
+    public void save(final Config config) {
+        if (!pendingConfigs.add(config)) {
+            return;
+        }
+
+        try {
+            executor.schedule(() -> write(config), SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            // Already shut down
+            write(config);
+        }
+    }
+
+    /**
+     * Synchronously saves all configs with pending saves, also waiting for a currently running save to complete.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            for (final Config config : pendingConfigs) {
+                write(config);
+            }
+        }
+    }
+
+    /**
+     * Stops the writer thread and saves all configs with pending saves.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        flush();
+    }
+
+    private void write(final Config config) {
+        synchronized (writeLock) {
+            if (!pendingConfigs.remove(config)) {
+                // Already written by a flush
+                return;
+            }
+
+            try {
+                config.save();
+            } catch (final IOException e) {
+                logger.log(Level.SEVERE, "Couldn't save " + config.getFile().getName(), e);
+            }
+        }
+    }
+}
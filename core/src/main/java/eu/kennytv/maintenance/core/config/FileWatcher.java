@@ -0,0 +1,127 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches a folder for created and modified files, passing their names to a listener once they have not been changed for a short while.
+ * <p>
+ * The listener is called from a single background thread.
+ */
+public final class FileWatcher {
+    private static final long DEBOUNCE_MILLIS = 500;
+    private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+        final Thread thread = new Thread(runnable, "Maintenance File Watcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, ScheduledFuture<?>> pendingChanges = new ConcurrentHashMap<>();
+    private final WatchService watchService;
+    private final Consumer<String> listener;
+    private final Logger logger;
+
+    /**
+     * Starts watching the given folder.
+     *
+     * @param folder   folder to watch, not including subfolders
+     * @param listener listener called with the name of a changed file
+     * @param logger   logger for exceptions thrown by the listener
+     * @throws IOException if the folder cannot be watched
+     */
+    public FileWatcher(final Path folder, final Consumer<String> listener, final Logger logger) throws IOException {
+        this.listener = listener;
+        this.logger = logger;
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        final Thread thread = new Thread(this::poll, "Maintenance File Watcher Poller");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the folder, discarding changes not yet passed to the listener.
+     * May also be called from within the listener.
+     */
+    public void close() {
+        try {
+            watchService.close();
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, "Error while closing the file watcher", e);
+        }
+        executor.shutdown();
+    }
+
+    private void poll() {
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() != StandardWatchEventKinds.OVERFLOW) {
+                        schedule(((Path) event.context()).getFileName().toString());
+                    }
+                }
+                if (!key.reset()) {
+                    // Folder deleted
+                    return;
+                }
+            }
+        } catch (final ClosedWatchServiceException | RejectedExecutionException ignored) {
+            // Closed
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void schedule(final String fileName) {
+        // Editors and our own saves tend to write a file multiple times in a row, only handle the last change
+        pendingChanges.compute(fileName, (name, future) -> {
+            if (future != null) {
+                future.cancel(false);
+            }
+            return executor.schedule(() -> handle(name), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void handle(final String fileName) {
+        pendingChanges.remove(fileName);
+        try {
+            listener.accept(fileName);
+        } catch (final Throwable t) {
+            logger.log(Level.SEVERE, "Error while handling a change of " + fileName, t);
+        }
+    }
+}
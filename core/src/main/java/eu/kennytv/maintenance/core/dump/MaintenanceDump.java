@@ -17,35 +17,133 @@
  */
 package eu.kennytv.maintenance.core.dump;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import eu.kennytv.maintenance.core.MaintenancePlugin;
 import eu.kennytv.maintenance.core.Settings;
-
+import eu.kennytv.maintenance.core.config.Config;
 import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-@SuppressWarnings({"FieldCanBeLocal", "unused"})
+/**
+ * Streams server information, the configuration, and the whitelist as json, without building the whole dump in memory.
+ * Collections larger than a given limit can be summarized by their size and a small sample of entries.
+ */
 public final class MaintenanceDump {
-    private final ServerDump general;
-    private final Map<String, Object> configuration;
-    private final JsonObject plugins;
+    public static final int INLINE_ALL = -1;
+    private static final int SAMPLE_SIZE = 10;
+    private final MaintenancePlugin plugin;
+    private final Settings settings;
 
     public MaintenanceDump(final MaintenancePlugin plugin, final Settings settings) {
-        general = new ServerDump(plugin.getVersion(), plugin.getServerType().toString(), plugin.getServerVersion(), plugin.getMaintenanceServersDump());
-
-        configuration = new LinkedHashMap<>(settings.getConfig().getValues());
-        final Object o = configuration.get("mysql");
-        if (o instanceof Map) {
-            final Map<String, Object> map = new LinkedHashMap<>(((Map<String, Object>) o));
-            map.keySet().removeIf(key -> !key.equals("use-mysql") && !key.equals("update-interval"));
-            configuration.put("mysql", map);
+        this.plugin = plugin;
+        this.settings = settings;
+    }
+
+    /**
+     * Writes the dump as a json object.
+     *
+     * @param writer            writer to stream to
+     * @param maxInlinedEntries collections with more entries are summarized, or {@link #INLINE_ALL} to inline all of them
+     * @throws IOException if writing fails
+     */
+    public void write(final JsonWriter writer, final int maxInlinedEntries) throws IOException {
+        writer.beginObject();
+        writer.name("general");
+        new ServerDump(plugin.getVersion(), plugin.getServerType().toString(), plugin.getServerVersion(), plugin.getMaintenanceServersDump()).write(writer);
+
+        writer.name("configuration").beginObject();
+        final Config config = settings.getConfig();
+        final Map<String, Object> configuration;
+        synchronized (config) {
+            configuration = new LinkedHashMap<>(config.getValues());
+        }
+        for (final Map.Entry<String, Object> entry : configuration.entrySet()) {
+            writer.name(entry.getKey());
+            if (entry.getKey().equals("mysql") && entry.getValue() instanceof Map) {
+                // Don't leak credentials
+                writer.beginObject();
+                for (final Map.Entry<?, ?> mysqlEntry : ((Map<?, ?>) entry.getValue()).entrySet()) {
+                    final String key = String.valueOf(mysqlEntry.getKey());
+                    if (key.equals("use-mysql") || key.equals("update-interval")) {
+                        writer.name(key);
+                        writeValue(writer, mysqlEntry.getValue(), maxInlinedEntries);
+                    }
+                }
+                writer.endObject();
+            } else {
+                writeValue(writer, entry.getValue(), maxInlinedEntries);
+            }
+        }
+        writer.name("whitelisted-players");
+        writeValue(writer, settings.getWhitelistedPlayers(), maxInlinedEntries);
+        writer.name("icon-exists").value(new File(plugin.getDataFolder(), "maintenance-icon.png").exists());
+        writer.endObject();
+
+        writer.name("plugins").beginObject();
+        writer.name("plugins").beginArray();
+        for (final PluginDump pluginDump : plugin.getPlugins()) {
+            pluginDump.write(writer);
         }
-        configuration.put("whitelisted-players", settings.getWhitelistedPlayers());
-        configuration.put("icon-exists", new File(plugin.getDataFolder(), "maintenance-icon.png").exists());
+        writer.endArray();
+        writer.endObject();
+        writer.endObject();
+    }
+
+    private static void writeValue(final JsonWriter writer, final Object value, final int maxInlinedEntries) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else if (value instanceof String) {
+            writer.value((String) value);
+        } else if (value instanceof Boolean) {
+            writer.value((Boolean) value);
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            final boolean summarize = maxInlinedEntries != INLINE_ALL && map.size() > maxInlinedEntries;
+            if (summarize) {
+                writer.beginObject();
+                writer.name("size").value(map.size());
+                writer.name("sample");
+            }
+
+            writer.beginObject();
+            final Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet().iterator();
+            for (int i = 0; iterator.hasNext() && (!summarize || i < SAMPLE_SIZE); i++) {
+                final Map.Entry<?, ?> entry = iterator.next();
+                writer.name(String.valueOf(entry.getKey()));
+                writeValue(writer, entry.getValue(), maxInlinedEntries);
+            }
+            writer.endObject();
 
-        final JsonObject jsonObject = new JsonObject();
-        jsonObject.add("plugins", MaintenancePlugin.GSON.toJsonTree(plugin.getPlugins()));
-        plugins = jsonObject;
+            if (summarize) {
+                writer.endObject();
+            }
+        } else if (value instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) value;
+            final boolean summarize = maxInlinedEntries != INLINE_ALL && collection.size() > maxInlinedEntries;
+            if (summarize) {
+                writer.beginObject();
+                writer.name("size").value(collection.size());
+                writer.name("sample");
+            }
+
+            writer.beginArray();
+            final Iterator<?> iterator = collection.iterator();
+            for (int i = 0; iterator.hasNext() && (!summarize || i < SAMPLE_SIZE); i++) {
+                writeValue(writer, iterator.next(), maxInlinedEntries);
+            }
+            writer.endArray();
+
+            if (summarize) {
+                writer.endObject();
+            }
+        } else {
+            writer.value(value.toString());
+        }
     }
 }
@@ -17,9 +17,10 @@
  */
 package eu.kennytv.maintenance.core.dump;
 
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.List;
 
-@SuppressWarnings({"FieldCanBeLocal", "unused"})
 public final class PluginDump {
     private final String name;
     private final String version;
@@ -30,4 +31,18 @@ public final class PluginDump {
         this.version = version;
         this.authors = authors != null && authors.isEmpty() ? null : authors;
     }
+
+    void write(final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("version").value(version);
+        if (authors != null) {
+            writer.name("authors").beginArray();
+            for (final String author : authors) {
+                writer.value(author);
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
 }
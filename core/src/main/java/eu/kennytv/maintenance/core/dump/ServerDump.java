@@ -17,9 +17,10 @@
  */
 package eu.kennytv.maintenance.core.dump;
 
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.List;
 
-@SuppressWarnings({"FieldCanBeLocal", "unused"})
 public final class ServerDump {
     private final String pluginVersion;
     private final String platform;
@@ -32,4 +33,19 @@ public final class ServerDump {
         this.serverVersion = serverVersion;
         this.maintenance = maintenance;
     }
-}
\ No newline at end of file
+
+    void write(final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("pluginVersion").value(pluginVersion);
+        writer.name("platform").value(platform);
+        writer.name("serverVersion").value(serverVersion);
+        if (maintenance != null) {
+            writer.name("maintenance").beginArray();
+            for (final String server : maintenance) {
+                writer.value(server);
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+}
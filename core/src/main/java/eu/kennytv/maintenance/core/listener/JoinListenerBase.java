@@ -19,6 +19,7 @@ package eu.kennytv.maintenance.core.listener;
 
 import eu.kennytv.maintenance.core.MaintenancePlugin;
 import eu.kennytv.maintenance.core.Settings;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
 import eu.kennytv.maintenance.core.util.SenderInfo;
 
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
@@ -27,14 +28,22 @@ import eu.kennytv.maintenance.lib.kyori.adventure.text.event.ClickEvent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.event.HoverEvent;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.format.NamedTextColor;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.format.TextDecoration;
-import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class JoinListenerBase {
     protected final MaintenancePlugin plugin;
     protected final Settings settings;
-    private final Set<UUID> notifiedPlayers = new HashSet<>();
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private final Set<UUID> notifiedPlayers = ConcurrentHashMap.newKeySet();
+    // Uuids and lowercase names of players recently refused by the full check, mapped to when they were last refused
+    private final Map<Object, Long> deniedPlayers = new ConcurrentHashMap<>();
+    private volatile long lastPruneMillis;
 
     protected JoinListenerBase(final MaintenancePlugin plugin, final Settings settings) {
         this.plugin = plugin;
@@ -55,6 +64,9 @@ public abstract class JoinListenerBase {
             return false;
         }
 
+        if (settings.isPreLoginCheck()) {
+            rememberDenied(sender);
+        }
         return true;
     }
 
@@ -62,15 +74,74 @@ public abstract class JoinListenerBase {
         return shouldKick(sender, true);
     }
 
+    /**
+     * Checks whether the player can already be refused before logging in, when only their name or uuid is known.
+     * Only players refused by {@link #shouldKick(SenderInfo, boolean)} shortly before are refused early,
+     * everyone else has to go through the full check after logging in.
+     *
+     * @param uuid uuid of the joining player, or null if they are not authenticated yet
+     * @param name name of the joining player
+     * @return true if the player should be kicked
+     */
+    protected boolean shouldKickEarly(@Nullable final UUID uuid, final String name) {
+        if (!settings.isPreLoginCheck() || !settings.isMaintenance()) {
+            return false;
+        }
+
+        // Players may have been whitelisted since being refused
+        final boolean whitelisted = uuid != null ? settings.isWhitelisted(uuid) : settings.getWhitelist().getUuid(name) != null;
+        return !whitelisted && isRecentlyDenied(uuid != null ? uuid : name.toLowerCase(Locale.ROOT));
+    }
+
+    private void rememberDenied(final SenderInfo sender) {
+        final long now = System.currentTimeMillis();
+        deniedPlayers.put(sender.getUuid(), now);
+        deniedPlayers.put(sender.getName().toLowerCase(Locale.ROOT), now);
+        if (now - lastPruneMillis > PRUNE_INTERVAL_MILLIS) {
+            lastPruneMillis = now;
+            final long rememberMillis = settings.getSnapshot().getRememberDeniedPlayersMillis();
+            deniedPlayers.values().removeIf(lastDenied -> now - lastDenied > rememberMillis);
+        }
+    }
+
+    private boolean isRecentlyDenied(final Object key) {
+        final Long lastDenied = deniedPlayers.get(key);
+        return lastDenied != null && System.currentTimeMillis() - lastDenied <= settings.getSnapshot().getRememberDeniedPlayersMillis();
+    }
+
+    /**
+     * To be called after {@link #shouldKick(SenderInfo, boolean)} to check whether the player has to wait
+     * because too many players are joining right after maintenance has been disabled.
+     *
+     * @param sender wrapper of the joining player
+     * @return queue ticket of the player, or null if they may join
+     */
+    @Nullable
+    protected AdmissionQueue.Ticket checkAdmission(final SenderInfo sender) {
+        return checkAdmission(sender, plugin.getAdmissionQueue());
+    }
+
+    @Nullable
+    protected AdmissionQueue.Ticket checkAdmission(final SenderInfo sender, @Nullable final AdmissionQueue queue) {
+        if (queue == null || sender.hasMaintenancePermission("bypass") || settings.isWhitelisted(sender.getUuid())) {
+            return null;
+        }
+        return queue.tryAdmit(sender.getUuid());
+    }
+
+    protected Component getAdmissionMessage(final AdmissionQueue.Ticket ticket, final boolean kick) {
+        return settings.getMessage(kick ? "admissionQueueKick" : "admissionQueueWaiting",
+                "%POSITION%", Integer.toString(ticket.getPosition()), "%SECONDS%", Integer.toString(ticket.getRetrySeconds()));
+    }
+
     protected void updateCheck(final SenderInfo sender) {
         if (!settings.hasUpdateChecks()) return;
         if (!sender.hasPermission("maintenance.admin") || notifiedPlayers.contains(sender.getUuid())) return;
-        plugin.async(() -> {
-            if (!plugin.updateAvailable()) {
+        plugin.checkForUpdate().thenAccept(updateAvailable -> {
+            if (!updateAvailable || !notifiedPlayers.add(sender.getUuid())) {
                 return;
             }
 
-            notifiedPlayers.add(sender.getUuid());
             sender.sendPrefixedRich("<red>There is a newer version available: <green>Version " + plugin.getNewestVersion() + "<red>, you're on <green>" + plugin.getVersion());
 
             final TextComponent text = Component.text().content("Download it at: ").color(NamedTextColor.RED)
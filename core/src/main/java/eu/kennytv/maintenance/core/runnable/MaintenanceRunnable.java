@@ -27,6 +27,13 @@ public class MaintenanceRunnable extends MaintenanceRunnableBase {
         super(plugin, settings, seconds, enable);
     }
 
+    @Override
+    public void run() {
+        super.run();
+        // Only the global timer is shown in the ping responses
+        settings.getPingResponseCache().timerTick();
+    }
+
     @Override
     protected void finish() {
         plugin.setMaintenance(enable);
@@ -0,0 +1,159 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Limits the number of logins per second for a while after maintenance has been disabled.
+ * <p>
+ * Logins use up tokens refilled at the configured rate. Players over the limit get a place in the queue, which they keep
+ * as long as they retry in time, and are let in once there are enough tokens for everyone in front of them.
+ */
+public final class AdmissionQueue {
+    // Time a queued player has after the suggested retry delay before losing their place
+    private static final long GRACE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private final Map<UUID, QueuedPlayer> queued = new HashMap<>();
+    private final ArrayDeque<QueuedPlayer> order = new ArrayDeque<>();
+    private final int loginsPerSecond;
+    private final long endMillis;
+    private double tokens;
+    private long lastRefillMillis;
+    private long nextTicket;
+
+    public AdmissionQueue(final int loginsPerSecond, final long durationMillis) {
+        this(loginsPerSecond, durationMillis, System.currentTimeMillis());
+    }
+
+    AdmissionQueue(final int loginsPerSecond, final long durationMillis, final long nowMillis) {
+        this.loginsPerSecond = Math.max(1, loginsPerSecond);
+        this.endMillis = nowMillis + durationMillis;
+        this.tokens = this.loginsPerSecond;
+        this.lastRefillMillis = nowMillis;
+    }
+
+    public boolean isActive() {
+        return System.currentTimeMillis() < endMillis;
+    }
+
+    /**
+     * Lets the player in if possible, or queues them.
+     *
+     * @param uuid uuid of the joining player
+     * @return the player's queue ticket, or null if they may join
+     */
+    public @Nullable Ticket tryAdmit(final UUID uuid) {
+        return tryAdmit(uuid, System.currentTimeMillis());
+    }
+
+    synchronized @Nullable Ticket tryAdmit(final UUID uuid, final long nowMillis) {
+        if (nowMillis >= endMillis) {
+            queued.clear();
+            order.clear();
+            return null;
+        }
+
+        refill(nowMillis);
+        pruneHead(nowMillis);
+
+        // Places freed up in the middle of the queue are only accounted for once they reach the head
+        QueuedPlayer player = queued.get(uuid);
+        final QueuedPlayer head = order.peekFirst();
+        final long headTicket = head != null ? head.ticket : nextTicket;
+        final int position = (int) ((player != null ? player.ticket : nextTicket) - headTicket);
+        if (position < (int) tokens) {
+            tokens--;
+            if (player != null) {
+                queued.remove(uuid);
+            }
+            return null;
+        }
+
+        final int retrySeconds = (int) Math.max(1, Math.ceil((position + 1 - tokens) / loginsPerSecond));
+        if (player == null) {
+            player = new QueuedPlayer(uuid, nextTicket++);
+            queued.put(uuid, player);
+            order.addLast(player);
+        }
+        player.expiresAtMillis = nowMillis + TimeUnit.SECONDS.toMillis(retrySeconds) + GRACE_MILLIS;
+        return new Ticket(position + 1, retrySeconds);
+    }
+
+    private void refill(final long nowMillis) {
+        final long elapsed = nowMillis - lastRefillMillis;
+        if (elapsed <= 0) return;
+
+        tokens = Math.min(loginsPerSecond, tokens + elapsed * loginsPerSecond / 1000D);
+        lastRefillMillis = nowMillis;
+    }
+
+    private void pruneHead(final long nowMillis) {
+        QueuedPlayer head;
+        while ((head = order.peekFirst()) != null) {
+            if (queued.get(head.uuid) != head) {
+                // Already let in
+                order.pollFirst();
+            } else if (head.expiresAtMillis < nowMillis) {
+                queued.remove(head.uuid);
+                order.pollFirst();
+            } else {
+                break;
+            }
+        }
+    }
+
+    public static final class Ticket {
+        private final int position;
+        private final int retrySeconds;
+
+        private Ticket(final int position, final int retrySeconds) {
+            this.position = position;
+            this.retrySeconds = retrySeconds;
+        }
+
+        /**
+         * @return position in the queue, starting at 1
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * @return seconds after which the player should try to join again
+         */
+        public int getRetrySeconds() {
+            return retrySeconds;
+        }
+    }
+
+    private static final class QueuedPlayer {
+        private final UUID uuid;
+        private final long ticket;
+        private long expiresAtMillis;
+
+        private QueuedPlayer(final UUID uuid, final long ticket) {
+            this.uuid = uuid;
+            this.ticket = ticket;
+        }
+    }
+}
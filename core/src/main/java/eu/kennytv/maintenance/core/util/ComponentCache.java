@@ -0,0 +1,91 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Small cache of parsed messages with their placeholders already replaced, keyed by the rendered message.
+ * <p>
+ * Entries are evicted once the cache is full, starting with the least recently used one, and expire shortly after being parsed.
+ */
+public final class ComponentCache {
+    private final Map<String, Entry> entries;
+    private final Function<String, Component> parser;
+    private final long expireNanos;
+
+    /**
+     * @param parser       parser used for messages not yet cached
+     * @param maxSize      maximum number of cached messages
+     * @param expireMillis milliseconds a parsed message is kept for
+     */
+    public ComponentCache(final Function<String, Component> parser, final int maxSize, final long expireMillis) {
+        this.parser = parser;
+        this.expireNanos = TimeUnit.MILLISECONDS.toNanos(expireMillis);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75F, true) {
+            @Override
+            // Qualified, as Entry would refer to Map.Entry inside the map
+            protected boolean removeEldestEntry(final Map.Entry<String, ComponentCache.Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed message, only parsing it if not cached.
+     *
+     * @param message message with placeholders already replaced
+     * @return parsed message
+     */
+    public Component get(final String message) {
+        final long now = System.nanoTime();
+        synchronized (entries) {
+            final Entry entry = entries.get(message);
+            if (entry != null && now - entry.parsedAt < expireNanos) {
+                return entry.component;
+            }
+        }
+
+        // Parse outside the lock, parsing twice in a race is fine
+        final Component component = parser.apply(message);
+        synchronized (entries) {
+            entries.put(message, new Entry(component, now));
+        }
+        return component;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static final class Entry {
+        private final Component component;
+        private final long parsedAt;
+
+        private Entry(final Component component, final long parsedAt) {
+            this.component = component;
+            this.parsedAt = parsedAt;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import eu.kennytv.maintenance.lib.kyori.adventure.key.Key;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.KeybindComponent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.TextComponent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.TranslatableComponent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.event.ClickEvent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.event.HoverEvent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.NamedTextColor;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.Style;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.TextColor;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.TextDecoration;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import java.util.List;
+
+/**
+ * Converts relocated components to the platform's native Adventure components by walking the component tree.
+ * Only components and events not known to the converter are converted via a json round trip.
+ * <p>
+ * Must only be used on platforms shipping Adventure.
+ */
+public final class ComponentConverter {
+    private static final TextDecoration[] DECORATIONS = TextDecoration.values();
+    private static final net.kyori.adventure.text.format.TextDecoration[] PLATFORM_DECORATIONS = new net.kyori.adventure.text.format.TextDecoration[DECORATIONS.length];
+    private static final net.kyori.adventure.text.format.TextDecoration.State[] PLATFORM_STATES = new net.kyori.adventure.text.format.TextDecoration.State[TextDecoration.State.values().length];
+
+    static {
+        for (final TextDecoration decoration : DECORATIONS) {
+            PLATFORM_DECORATIONS[decoration.ordinal()] = net.kyori.adventure.text.format.TextDecoration.NAMES.value(TextDecoration.NAMES.key(decoration));
+        }
+        for (final TextDecoration.State state : TextDecoration.State.values()) {
+            PLATFORM_STATES[state.ordinal()] = net.kyori.adventure.text.format.TextDecoration.State.valueOf(state.name());
+        }
+    }
+
+    private ComponentConverter() {
+    }
+
+    public static net.kyori.adventure.text.Component toPlatform(final Component component) {
+        final net.kyori.adventure.text.Component converted = convert(component);
+        return converted != null ? converted : toPlatformJson(component);
+    }
+
+    /**
+     * Converts the component via a json round trip, keeping anything not known to the structural conversion.
+     *
+     * @param component component to convert
+     * @return platform component
+     */
+    public static net.kyori.adventure.text.Component toPlatformJson(final Component component) {
+        return net.kyori.adventure.text.serializer.gson.GsonComponentSerializer.gson().deserializeFromTree(GsonComponentSerializer.gson().serializeToTree(component));
+    }
+
+    // Returns null if the component has to be converted via json
+    private static net.kyori.adventure.text.Component convert(final Component component) {
+        final net.kyori.adventure.text.format.Style style = convertStyle(component.style());
+        if (style == null) {
+            return null;
+        }
+
+        final net.kyori.adventure.text.ComponentBuilder<?, ?> builder;
+        if (component instanceof TextComponent) {
+            builder = net.kyori.adventure.text.Component.text().content(((TextComponent) component).content());
+        } else if (component instanceof TranslatableComponent) {
+            final TranslatableComponent translatable = (TranslatableComponent) component;
+            if (translatable.fallback() != null) {
+                return null;
+            }
+
+            final List<Component> args = translatable.args();
+            final net.kyori.adventure.text.Component[] convertedArgs = new net.kyori.adventure.text.Component[args.size()];
+            for (int i = 0; i < convertedArgs.length; i++) {
+                convertedArgs[i] = toPlatform(args.get(i));
+            }
+            builder = net.kyori.adventure.text.Component.translatable().key(translatable.key()).args(convertedArgs);
+        } else if (component instanceof KeybindComponent) {
+            builder = net.kyori.adventure.text.Component.keybind().keybind(((KeybindComponent) component).keybind());
+        } else {
+            // Score, selector, nbt, and whatever else may be added in the future
+            return null;
+        }
+
+        builder.style(style);
+        for (final Component child : component.children()) {
+            builder.append(toPlatform(child));
+        }
+        return builder.build();
+    }
+
+    // Returns null if the style has to be converted via json
+    private static net.kyori.adventure.text.format.Style convertStyle(final Style style) {
+        if (style.isEmpty()) {
+            return net.kyori.adventure.text.format.Style.empty();
+        }
+
+        final net.kyori.adventure.text.format.Style.Builder builder = net.kyori.adventure.text.format.Style.style();
+        final TextColor color = style.color();
+        if (color != null) {
+            builder.color(convertColor(color));
+        }
+
+        for (final TextDecoration decoration : DECORATIONS) {
+            final TextDecoration.State state = style.decoration(decoration);
+            if (state != TextDecoration.State.NOT_SET) {
+                builder.decoration(PLATFORM_DECORATIONS[decoration.ordinal()], PLATFORM_STATES[state.ordinal()]);
+            }
+        }
+
+        final ClickEvent clickEvent = style.clickEvent();
+        if (clickEvent != null) {
+            final net.kyori.adventure.text.event.ClickEvent.Action action = net.kyori.adventure.text.event.ClickEvent.Action.NAMES.value(ClickEvent.Action.NAMES.key(clickEvent.action()));
+            if (action == null) {
+                return null;
+            }
+            builder.clickEvent(net.kyori.adventure.text.event.ClickEvent.clickEvent(action, clickEvent.value()));
+        }
+
+        final HoverEvent<?> hoverEvent = style.hoverEvent();
+        if (hoverEvent != null) {
+            // Items and entities are left to the json conversion
+            if (hoverEvent.action() != HoverEvent.Action.SHOW_TEXT) {
+                return null;
+            }
+            builder.hoverEvent(net.kyori.adventure.text.event.HoverEvent.showText(toPlatform((Component) hoverEvent.value())));
+        }
+
+        final Key font = style.font();
+        if (font != null) {
+            builder.font(net.kyori.adventure.key.Key.key(font.namespace(), font.value()));
+        }
+        builder.insertion(style.insertion());
+        return builder.build();
+    }
+
+    private static net.kyori.adventure.text.format.TextColor convertColor(final TextColor color) {
+        if (color instanceof NamedTextColor) {
+            final net.kyori.adventure.text.format.NamedTextColor namedColor = net.kyori.adventure.text.format.NamedTextColor.NAMES.value(NamedTextColor.NAMES.key((NamedTextColor) color));
+            if (namedColor != null) {
+                return namedColor;
+            }
+        }
+        return net.kyori.adventure.text.format.TextColor.color(color.value());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.Blocking;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shared http layer for all web requests, using strict timeouts and a small pool of daemon threads for async requests.
+ * Async requests are rejected once too many are waiting for a thread, instead of piling up while the remote host is slow.
+ * <p>
+ * Response bodies are always read fully and closed, including error bodies, so that the connection can be kept alive and reused
+ * by the JDK's connection cache for further requests to the same host.
+ */
+public final class HttpService {
+    public static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    public static final int READ_TIMEOUT_MILLIS = 10_000;
+    private static final int MAX_THREADS = 4;
+    private static final int MAX_QUEUED_REQUESTS = 256;
+    private final ThreadPoolExecutor executor;
+    private final String userAgent;
+
+    public HttpService(final String userAgent) {
+        this.userAgent = userAgent;
+        final AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS), runnable -> {
+            final Thread thread = new Thread(runnable, "Maintenance HTTP #" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param url url to request
+     * @return response with status code and body
+     * @throws IOException if the request fails or times out
+     */
+    @Blocking
+    public Response get(final String url) throws IOException {
+        return request("GET", url, null, null, -1);
+    }
+
+    /**
+     * Sends a POST request.
+     *
+     * @param url         url to request
+     * @param contentType content type of the body
+     * @param body        request body
+     * @return response with status code and body
+     * @throws IOException if the request fails or times out
+     */
+    @Blocking
+    public Response post(final String url, final String contentType, final byte[] body) throws IOException {
+        return request("POST", url, contentType, out -> out.write(body), body.length);
+    }
+
+    /**
+     * Sends a POST request, streaming the body with chunked transfer encoding.
+     *
+     * @param url         url to request
+     * @param contentType content type of the body
+     * @param body        writer of the request body
+     * @return response with status code and body
+     * @throws IOException if writing the body or the request fails or times out
+     */
+    @Blocking
+    public Response post(final String url, final String contentType, final BodyWriter body) throws IOException {
+        return request("POST", url, contentType, body, -1);
+    }
+
+    /**
+     * Runs the given blocking request on the http executor.
+     *
+     * @param request blocking request
+     * @param <T>     result type
+     * @return future completed with the result, or exceptionally if the request fails or too many requests are queued
+     */
+    public <T> CompletableFuture<T> supplyAsync(final Request<T> request) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(request.execute());
+                } catch (final Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Opens a connection with timeouts and user agent set, for requests needing to stream their response.
+     * The caller has to fully read and close the response stream.
+     *
+     * @param url url to request
+     * @return unconnected connection
+     * @throws IOException if opening the connection fails
+     */
+    public HttpURLConnection openConnection(final String url) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        connection.setRequestProperty("User-Agent", userAgent);
+        return connection;
+    }
+
+    /**
+     * @return bounded executor used for async requests, throwing a {@link RejectedExecutionException} when too many tasks are queued
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Response request(final String method, final String url, @Nullable final String contentType,
+                             @Nullable final BodyWriter body, final int contentLength) throws IOException {
+        final HttpURLConnection connection = openConnection(url);
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", contentType);
+            if (contentLength != -1) {
+                connection.setFixedLengthStreamingMode(contentLength);
+            } else {
+                connection.setChunkedStreamingMode(0);
+            }
+            try (final OutputStream out = connection.getOutputStream()) {
+                body.write(out);
+            }
+        }
+
+        final int status = connection.getResponseCode();
+        final InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in == null) {
+            return new Response(status, new byte[0]);
+        }
+
+        try (final InputStream stream = in) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new Response(status, out.toByteArray());
+        }
+    }
+
+    @FunctionalInterface
+    public interface BodyWriter {
+
+        void write(OutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Request<T> {
+
+        T execute() throws IOException;
+    }
+
+    public static final class Response {
+        private final int status;
+        private final byte[] body;
+
+        private Response(final int status, final byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getBodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
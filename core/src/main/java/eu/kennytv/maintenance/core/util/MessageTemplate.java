@@ -0,0 +1,186 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Message split into literal parts and {@code %PLACEHOLDER%} slots once, so that rendering only has to
+ * write the parts and replacement values into a single builder.
+ * <p>
+ * Placeholders without a replacement value are rendered as they are.
+ */
+public final class MessageTemplate {
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+    private volatile Component component;
+
+    private MessageTemplate(final String[] literals, final String[] placeholders, final int literalLength) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Compiles the given message, any other variables have to be resolved beforehand.
+     *
+     * @param message message to compile
+     * @return compiled message template
+     */
+    public static MessageTemplate compile(final String message) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> placeholders = new ArrayList<>();
+        int literalStart = 0;
+        int index = 0;
+        while ((index = message.indexOf('%', index)) != -1) {
+            final int end = placeholderEnd(message, index);
+            if (end == -1) {
+                index++;
+                continue;
+            }
+
+            literals.add(message.substring(literalStart, index));
+            placeholders.add(message.substring(index, end));
+            literalStart = index = end;
+        }
+        literals.add(message.substring(literalStart));
+        return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]), message.length() - lengthOf(placeholders));
+    }
+
+    // Returns the index after the closing percent sign, or -1 if there is no valid placeholder at the given index
+    private static int placeholderEnd(final String message, final int start) {
+        for (int i = start + 1; i < message.length(); i++) {
+            final char c = message.charAt(i);
+            if (c == '%') {
+                return i == start + 1 ? -1 : i + 1;
+            }
+            if ((c < 'A' || c > 'Z') && (c < '0' || c > '9') && c != '_') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int lengthOf(final List<String> strings) {
+        int length = 0;
+        for (final String s : strings) {
+            length += s.length();
+        }
+        return length;
+    }
+
+    /**
+     * Renders the message with the given placeholder and replacement pairs.
+     *
+     * @param replacements alternating placeholders and their replacement values
+     * @return rendered message
+     * @throws IllegalArgumentException if the number of replacements is odd
+     */
+    public String render(final String... replacements) {
+        if (replacements.length % 2 != 0) {
+            throw new IllegalArgumentException("Invalid replacement count: " + replacements.length);
+        }
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        int length = literalLength;
+        final String[] values = new String[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            final String placeholder = placeholders[i];
+            String value = placeholder;
+            for (int j = 0; j < replacements.length; j += 2) {
+                if (replacements[j].equals(placeholder)) {
+                    value = replacements[j + 1];
+                    break;
+                }
+            }
+            values[i] = value;
+            length += value.length();
+        }
+        return join(values, length);
+    }
+
+    /**
+     * Renders the message, resolving the placeholders with the given function.
+     *
+     * @param resolver function returning the replacement value for a placeholder, or null to keep the placeholder
+     * @return rendered message
+     */
+    public String render(final Function<String, String> resolver) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        int length = literalLength;
+        final String[] values = new String[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            final String value = resolver.apply(placeholders[i]);
+            values[i] = value != null ? value : placeholders[i];
+            length += values[i].length();
+        }
+        return join(values, length);
+    }
+
+    private String join(final String[] values, final int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        builder.append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            builder.append(values[i]).append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the message parsed as a component, only parsing it on the first call.
+     *
+     * @param parser parser used for the message
+     * @return parsed message
+     * @throws IllegalStateException if the message contains placeholders
+     */
+    public Component getComponent(final Function<String, Component> parser) {
+        if (placeholders.length != 0) {
+            throw new IllegalStateException("Message contains placeholders");
+        }
+
+        Component component = this.component;
+        if (component == null) {
+            // Parsing twice in a race is fine, both results are equal
+            component = parser.apply(literals[0]);
+            this.component = component;
+        }
+        return component;
+    }
+
+    public boolean hasPlaceholders() {
+        return placeholders.length != 0;
+    }
+
+    public boolean hasPlaceholder(final String placeholder) {
+        for (final String s : placeholders) {
+            if (s.equals(placeholder)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
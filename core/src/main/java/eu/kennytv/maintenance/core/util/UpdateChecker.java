@@ -0,0 +1,104 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Fetches the latest released version at most once per interval, sharing a single in-flight request among concurrent callers.
+ */
+public final class UpdateChecker {
+    private static final String LATEST_RELEASE_URL = "https://hangar.papermc.io/api/v1/projects/Maintenance/latestrelease";
+    private static final long FAILURE_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private final HttpService http;
+    private volatile Version latestVersion;
+    private volatile long nextCheckAt;
+    private CompletableFuture<@Nullable Version> pendingCheck;
+
+    public UpdateChecker(final HttpService http) {
+        this.http = http;
+    }
+
+    /**
+     * Returns the latest released version, fetching it if the last result is older than the given interval.
+     *
+     * @param intervalMillis milliseconds a fetched result is reused for
+     * @return future with the latest version, or null if it could not be fetched yet
+     */
+    public CompletableFuture<@Nullable Version> getLatestVersion(final long intervalMillis) {
+        if (System.currentTimeMillis() < nextCheckAt) {
+            return CompletableFuture.completedFuture(latestVersion);
+        }
+
+        synchronized (this) {
+            if (pendingCheck != null) {
+                return pendingCheck;
+            }
+            if (System.currentTimeMillis() < nextCheckAt) {
+                // Completed while waiting for the lock
+                return CompletableFuture.completedFuture(latestVersion);
+            }
+
+            final CompletableFuture<@Nullable Version> future = new CompletableFuture<>();
+            pendingCheck = future;
+            try {
+                http.supplyAsync(this::fetchLatestVersion).whenComplete((fetchedVersion, throwable) -> {
+                    if (throwable == null) {
+                        latestVersion = fetchedVersion;
+                        nextCheckAt = System.currentTimeMillis() + intervalMillis;
+                    } else {
+                        // Keep the previous result and retry a bit later
+                        nextCheckAt = System.currentTimeMillis() + Math.min(intervalMillis, FAILURE_RETRY_MILLIS);
+                    }
+
+                    synchronized (this) {
+                        pendingCheck = null;
+                    }
+                    future.complete(latestVersion);
+                });
+            } catch (final RuntimeException e) {
+                // Never scheduled, so nothing else clears the pending check
+                nextCheckAt = System.currentTimeMillis() + Math.min(intervalMillis, FAILURE_RETRY_MILLIS);
+                pendingCheck = null;
+                future.complete(latestVersion);
+            }
+            return future;
+        }
+    }
+
+    /**
+     * @return last fetched latest version, or null if not fetched yet
+     */
+    public @Nullable Version getCachedLatestVersion() {
+        return latestVersion;
+    }
+
+    private Version fetchLatestVersion() throws IOException {
+        final HttpService.Response response = http.get(LATEST_RELEASE_URL);
+        if (!response.isSuccessful()) {
+            throw new IOException("Unexpected response code " + response.getStatus());
+        }
+
+        final String body = response.getBodyAsString().trim();
+        final int lineEnd = body.indexOf('\n');
+        return new Version(lineEnd == -1 ? body : body.substring(0, lineEnd).trim());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import eu.kennytv.maintenance.core.MaintenancePlugin;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import org.jetbrains.annotations.Blocking;
+
+/**
+ * Downloads a release jar into a temp file next to the plugin file, verifies it against the sha256 digest of the
+ * GitHub release asset, and atomically replaces the plugin file with it.
+ */
+public final class UpdateInstaller {
+    private static final String RELEASE_URL = "https://api.github.com/repos/kennytv/Maintenance/releases/tags/";
+    private static final String DIGEST_PREFIX = "sha256:";
+    private static final long TRANSFER_CHUNK_SIZE = 1 << 20;
+    private final HttpService http;
+
+    public UpdateInstaller(final HttpService http) {
+        this.http = http;
+    }
+
+    /**
+     * Downloads, verifies and installs the given release asset.
+     *
+     * @param version    release version
+     * @param fileName   name of the release asset
+     * @param pluginFile plugin file to replace
+     * @return download statistics
+     * @throws IOException if the download, verification or replacement fails
+     */
+    @Blocking
+    public Result install(final Version version, final String fileName, final Path pluginFile) throws IOException {
+        final JsonObject asset = fetchAsset(version, fileName);
+        final JsonElement digestElement = asset.get("digest");
+        if (digestElement == null || digestElement.isJsonNull() || !digestElement.getAsString().startsWith(DIGEST_PREFIX)) {
+            throw new IOException("No sha256 digest published for " + fileName);
+        }
+
+        final String expectedDigest = digestElement.getAsString().substring(DIGEST_PREFIX.length()).toLowerCase(Locale.ROOT);
+        final long expectedSize = asset.get("size").getAsLong();
+        final Path tempFile = pluginFile.resolveSibling(pluginFile.getFileName() + ".tmp");
+        final long start = System.nanoTime();
+        try {
+            final MessageDigest digest = sha256();
+            final long size = download(asset.get("browser_download_url").getAsString(), tempFile, digest);
+            if (size != expectedSize) {
+                throw new IOException("Expected " + expectedSize + " bytes, but downloaded " + size);
+            }
+
+            final String actualDigest = toHex(digest.digest());
+            if (!actualDigest.equals(expectedDigest)) {
+                throw new IOException("Checksum mismatch, expected " + expectedDigest + " but got " + actualDigest);
+            }
+
+            try {
+                Files.move(tempFile, pluginFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, pluginFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new Result(size, System.nanoTime() - start);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private JsonObject fetchAsset(final Version version, final String fileName) throws IOException {
+        final HttpService.Response response = http.get(RELEASE_URL + version);
+        if (!response.isSuccessful()) {
+            throw new IOException("Unexpected response code " + response.getStatus() + " for release " + version);
+        }
+
+        final JsonObject release = MaintenancePlugin.GSON.fromJson(response.getBodyAsString(), JsonObject.class);
+        for (final JsonElement element : release.getAsJsonArray("assets")) {
+            final JsonObject asset = element.getAsJsonObject();
+            if (fileName.equals(asset.get("name").getAsString())) {
+                return asset;
+            }
+        }
+        throw new IOException("Release " + version + " has no asset " + fileName);
+    }
+
+    private long download(final String url, final Path file, final MessageDigest digest) throws IOException {
+        final HttpURLConnection connection = http.openConnection(url);
+        final int status = connection.getResponseCode();
+        if (status != 200) {
+            // Fully read the error body, so that the connection can be reused
+            try (final InputStream error = connection.getErrorStream()) {
+                if (error != null) {
+                    final byte[] buffer = new byte[8192];
+                    while (error.read(buffer) != -1) {
+                        // Discarded
+                    }
+                }
+            }
+            throw new IOException("Unexpected response code " + status + " for " + url);
+        }
+
+        try (final InputStream in = new DigestInputStream(connection.getInputStream(), digest);
+             final ReadableByteChannel source = Channels.newChannel(in);
+             final FileChannel target = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+            target.force(true);
+            return position;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // Every Java platform is required to support it
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    public static final class Result {
+        private final long bytes;
+        private final long nanos;
+
+        private Result(final long bytes, final long nanos) {
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getMillis() {
+            return nanos / 1_000_000;
+        }
+
+        /**
+         * @return average download speed in bytes per second
+         */
+        public long getBytesPerSecond() {
+            return nanos > 0 ? (long) (bytes / (nanos / 1_000_000_000D)) : bytes;
+        }
+    }
+}
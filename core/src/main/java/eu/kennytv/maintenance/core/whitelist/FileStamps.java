@@ -0,0 +1,89 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sizes and modification times of files as last read or written by a whitelist storage,
+ * used to tell the storage's own writes apart from edits made by others.
+ */
+final class FileStamps {
+    private final Map<String, Stamp> stamps = new ConcurrentHashMap<>();
+
+    /**
+     * Records the current size and modification time of the given file.
+     *
+     * @param file file just read or written
+     */
+    void record(final Path file) {
+        final Stamp stamp = Stamp.of(file);
+        if (stamp != null) {
+            stamps.put(file.getFileName().toString(), stamp);
+        } else {
+            stamps.remove(file.getFileName().toString());
+        }
+    }
+
+    /**
+     * @param file file to check
+     * @return true if the file still has the size and modification time last recorded
+     */
+    boolean isUnchanged(final Path file) {
+        final Stamp stamp = stamps.get(file.getFileName().toString());
+        return stamp != null && stamp.equals(Stamp.of(file));
+    }
+
+    private static final class Stamp {
+        private final long size;
+        private final long lastModified;
+
+        private Stamp(final long size, final long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private static @Nullable Stamp of(final Path file) {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new Stamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+            } catch (final IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Stamp stamp = (Stamp) o;
+            return size == stamp.size && lastModified == stamp.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(size) + Long.hashCode(lastModified);
+        }
+    }
+}
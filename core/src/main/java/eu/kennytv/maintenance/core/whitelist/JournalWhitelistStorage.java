@@ -0,0 +1,237 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import eu.kennytv.maintenance.core.config.Config;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * Stores the whitelist as a snapshot file and an append-only journal of changes made since the snapshot was written.
+ * <p>
+ * Both files consist of lines of {@code +<uuid> <name>} and {@code -<uuid>} records, which are replayed in order on load.
+ * Once the journal holds more records than the whitelist has entries, it is compacted into a new snapshot.
+ * Both files start with a {@code #<generation>} line, increased with every compaction, so that a journal
+ * left behind by a crash right after writing a new snapshot is not replayed on top of it.
+ * <p>
+ * If neither file exists yet, entries of the yaml whitelist file are migrated once.
+ */
+public final class JournalWhitelistStorage implements WhitelistStorage {
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    private final Queue<String> pendingRecords = new ConcurrentLinkedQueue<>();
+    private final FileStamps fileStamps = new FileStamps();
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final File yamlFile;
+    private final Logger logger;
+    private int journalRecords;
+    private long generation;
+
+    public JournalWhitelistStorage(final File dataFolder, final Logger logger) {
+        this.snapshotFile = new File(dataFolder, "WhitelistedPlayers.snapshot").toPath();
+        this.journalFile = new File(dataFolder, "WhitelistedPlayers.journal").toPath();
+        this.yamlFile = new File(dataFolder, "WhitelistedPlayers.yml");
+        this.logger = logger;
+    }
+
+    @Override
+    public synchronized Map<UUID, String> load() throws IOException {
+        pendingRecords.clear();
+        journalRecords = 0;
+        generation = 0;
+        if (!Files.exists(snapshotFile) && !Files.exists(journalFile)) {
+            return migrateFromYaml();
+        }
+
+        final Map<UUID, String> players = new HashMap<>();
+        if (Files.exists(snapshotFile)) {
+            generation = readGeneration(snapshotFile);
+            replay(snapshotFile, players);
+        }
+        if (Files.exists(journalFile)) {
+            if (readGeneration(journalFile) == generation) {
+                journalRecords = replay(journalFile, players);
+            } else {
+                // Its changes are already contained in the snapshot, and it must not be appended to
+                logger.warning("Discarding " + journalFile.getFileName() + " left over from before the last compaction");
+                Files.delete(journalFile);
+            }
+        }
+        fileStamps.record(snapshotFile);
+        fileStamps.record(journalFile);
+        return players;
+    }
+
+    private Map<UUID, String> migrateFromYaml() throws IOException {
+        if (!yamlFile.exists()) {
+            return new HashMap<>();
+        }
+
+        final Config config = new Config(yamlFile);
+        config.load();
+        final Map<UUID, String> players = YamlWhitelistStorage.readEntries(config, logger);
+        writeSnapshot(players, generation);
+        logger.info("Migrated " + players.size() + " whitelisted players from " + yamlFile.getName() + " to " + snapshotFile.getFileName());
+        return players;
+    }
+
+    private static long readGeneration(final Path file) throws IOException {
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final String line = reader.readLine();
+            if (line == null || !line.startsWith("#")) {
+                // Written before generations were added
+                return 0;
+            }
+
+            try {
+                return Long.parseLong(line.substring(1));
+            } catch (final NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    private int replay(final Path file, final Map<UUID, String> players) throws IOException {
+        int records = 0;
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+
+                try {
+                    apply(line, players);
+                    records++;
+                } catch (final IllegalArgumentException | IndexOutOfBoundsException e) {
+                    // Most likely a partially written last line
+                    logger.warning("Invalid whitelist record in " + file.getFileName() + ": " + line);
+                }
+            }
+        }
+        return records;
+    }
+
+    private static void apply(final String record, final Map<UUID, String> players) {
+        final char type = record.charAt(0);
+        if (type == '+') {
+            final int separatorIndex = record.indexOf(' ');
+            if (separatorIndex == -1) {
+                throw new IllegalArgumentException("Missing name");
+            }
+            players.put(UUID.fromString(record.substring(1, separatorIndex)), record.substring(separatorIndex + 1));
+        } else if (type == '-') {
+            players.remove(UUID.fromString(record.substring(1)));
+        } else {
+            throw new IllegalArgumentException("Unknown record type " + type);
+        }
+    }
+
+    @Override
+    public void recordAdd(final UUID uuid, final String name) {
+        pendingRecords.add('+' + uuid.toString() + ' ' + name);
+    }
+
+    @Override
+    public void recordRemove(final UUID uuid) {
+        pendingRecords.add('-' + uuid.toString());
+    }
+
+    @Override
+    public synchronized void save(final Map<UUID, String> players) throws IOException {
+        if (!pendingRecords.isEmpty()) {
+            final boolean newJournal = !Files.exists(journalFile);
+            try (final BufferedWriter writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                if (newJournal) {
+                    writeGeneration(writer, generation);
+                }
+                String record;
+                while ((record = pendingRecords.poll()) != null) {
+                    writer.write(record);
+                    writer.write('\n');
+                    journalRecords++;
+                }
+            }
+            fileStamps.record(journalFile);
+        }
+
+        if (journalRecords > Math.max(MIN_COMPACTION_RECORDS, players.size())) {
+            compact(players);
+        }
+    }
+
+    private void compact(final Map<UUID, String> players) throws IOException {
+        // Changes made while writing the snapshot are still queued and will be appended to the new journal
+        final long nextGeneration = generation + 1;
+        writeSnapshot(players, nextGeneration);
+        generation = nextGeneration;
+        Files.deleteIfExists(journalFile);
+        fileStamps.record(journalFile);
+        journalRecords = 0;
+    }
+
+    private void writeSnapshot(final Map<UUID, String> players, final long generation) throws IOException {
+        final Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (final BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            writeGeneration(writer, generation);
+            for (final Map.Entry<UUID, String> entry : players.entrySet()) {
+                writer.write('+');
+                writer.write(entry.getKey().toString());
+                writer.write(' ');
+                writer.write(entry.getValue());
+                writer.write('\n');
+            }
+        }
+
+        try {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        fileStamps.record(snapshotFile);
+    }
+
+    private static void writeGeneration(final BufferedWriter writer, final long generation) throws IOException {
+        writer.write('#');
+        writer.write(Long.toString(generation));
+        writer.write('\n');
+    }
+
+    @Override
+    public boolean isUnchanged(final String fileName) {
+        if (fileName.equals(snapshotFile.getFileName().toString())) {
+            return fileStamps.isUnchanged(snapshotFile);
+        }
+        return fileName.equals(journalFile.getFileName().toString()) && fileStamps.isUnchanged(journalFile);
+    }
+}
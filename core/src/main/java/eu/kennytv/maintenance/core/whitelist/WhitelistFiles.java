@@ -0,0 +1,189 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import eu.kennytv.maintenance.core.MaintenancePlugin;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads and writes whitelist import/export files line by line, either as csv with {@code uuid,name} lines,
+ * or as json lines with {@code {"uuid":"...","name":"..."}} objects, depending on the file extension.
+ * <p>
+ * Imported lines may also contain just a name, in which case the uuid has to be looked up.
+ * Files are confined to the {@value #FOLDER} folder inside the plugin folder, so that the plugin's own files cannot be overwritten.
+ */
+public final class WhitelistFiles {
+    public static final int PROGRESS_INTERVAL = 1000;
+    public static final String FOLDER = "exports";
+    private static final String CSV_HEADER = "uuid,name";
+
+    private WhitelistFiles() {
+    }
+
+    /**
+     * @param dataFolder plugin data folder
+     * @param path       path relative to the exports folder
+     * @return resolved file, or null if it would be outside the exports folder
+     */
+    public static @Nullable Path resolve(final File dataFolder, final String path) {
+        try {
+            final Path folder = new File(dataFolder, FOLDER).getCanonicalFile().toPath();
+            final Path file = folder.resolve(path).normalize();
+            return file.startsWith(folder) && !file.equals(folder) ? file : null;
+        } catch (final IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the given file line by line.
+     *
+     * @param file     file to read
+     * @param players  map to put entries with uuid and name in
+     * @param names    collection to add names without uuid to
+     * @param progress called with the number of lines read every {@link #PROGRESS_INTERVAL} lines
+     * @return number of invalid lines
+     * @throws IOException if reading the file fails
+     */
+    public static int read(final Path file, final Map<UUID, String> players, final Collection<String> names, final IntConsumer progress) throws IOException {
+        final boolean jsonLines = isJsonLines(file);
+        int lines = 0;
+        int invalidLines = 0;
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (++lines % PROGRESS_INTERVAL == 0) {
+                    progress.accept(lines);
+                }
+
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#' || line.equalsIgnoreCase(CSV_HEADER)) {
+                    continue;
+                }
+
+                try {
+                    if (jsonLines) {
+                        readJsonLine(line, players, names);
+                    } else {
+                        readCsvLine(line, players, names);
+                    }
+                } catch (final IllegalArgumentException | JsonParseException | IllegalStateException | ClassCastException e) {
+                    invalidLines++;
+                }
+            }
+        }
+        return invalidLines;
+    }
+
+    private static void readCsvLine(final String line, final Map<UUID, String> players, final Collection<String> names) {
+        final int separatorIndex = line.indexOf(',');
+        if (separatorIndex == -1) {
+            names.add(line);
+            return;
+        }
+
+        final String name = line.substring(separatorIndex + 1).trim();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Missing name");
+        }
+        players.put(UUID.fromString(line.substring(0, separatorIndex).trim()), name);
+    }
+
+    private static void readJsonLine(final String line, final Map<UUID, String> players, final Collection<String> names) {
+        final JsonObject object = MaintenancePlugin.GSON.fromJson(line, JsonObject.class);
+        // Returned for a json null
+        if (object == null) {
+            throw new IllegalArgumentException("Not an object");
+        }
+        if (!object.has("name")) {
+            throw new IllegalArgumentException("Missing name");
+        }
+
+        final String name = object.getAsJsonPrimitive("name").getAsString();
+        if (object.has("uuid")) {
+            players.put(UUID.fromString(object.getAsJsonPrimitive("uuid").getAsString()), name);
+        } else {
+            names.add(name);
+        }
+    }
+
+    /**
+     * Writes all given players to the file, replacing it if it exists.
+     * The file is only replaced once all players have been written.
+     *
+     * @param file    file to write to
+     * @param players players mapped by uuid
+     * @return number of written players
+     * @throws IOException if writing the file fails
+     */
+    public static int write(final Path file, final Map<UUID, String> players) throws IOException {
+        final boolean jsonLines = isJsonLines(file);
+        int written = 0;
+        Files.createDirectories(file.getParent());
+        final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            if (!jsonLines) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            for (final Map.Entry<UUID, String> entry : players.entrySet()) {
+                if (jsonLines) {
+                    final JsonObject object = new JsonObject();
+                    object.addProperty("uuid", entry.getKey().toString());
+                    object.addProperty("name", entry.getValue());
+                    writer.write(MaintenancePlugin.GSON.toJson(object));
+                } else {
+                    writer.write(entry.getKey().toString());
+                    writer.write(',');
+                    writer.write(entry.getValue());
+                }
+                writer.write('\n');
+                written++;
+            }
+        }
+
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return written;
+    }
+
+    private static boolean isJsonLines(final Path file) {
+        final String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return fileName.endsWith(".jsonl") || fileName.endsWith(".json");
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persistence backend of the {@link WhitelistStore}.
+ * <p>
+ * Changes are recorded in the order they are made, possibly from different threads, and persisted on {@link #save(Map)}.
+ */
+public interface WhitelistStorage {
+
+    /**
+     * Loads all whitelisted players.
+     *
+     * @return mutable map of whitelisted players
+     * @throws IOException if reading the storage fails
+     */
+    Map<UUID, String> load() throws IOException;
+
+    void recordAdd(UUID uuid, String name);
+
+    void recordRemove(UUID uuid);
+
+    /**
+     * Persists all recorded changes.
+     *
+     * @param players current state of the whitelist, already including all recorded changes
+     * @throws IOException if writing the storage fails
+     */
+    void save(Map<UUID, String> players) throws IOException;
+
+    /**
+     * Checks whether the given file is one of this storage's files and has not been changed since the storage last read or wrote it,
+     * meaning a change notification for it was caused by the storage itself.
+     *
+     * @param fileName name of the file in the plugin folder
+     * @return true if the file is unchanged since the storage last read or wrote it
+     */
+    boolean isUnchanged(String fileName);
+}
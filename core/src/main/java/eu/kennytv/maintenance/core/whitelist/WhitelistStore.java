@@ -0,0 +1,226 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Whitelisted players indexed by uuid and case-insensitive name.
+ * <p>
+ * Lookups are lock-free and may be done from any thread. Modifications are serialized, and saving them to the
+ * {@link WhitelistStorage} is done asynchronously, coalescing all modifications made until the save runs into a single write.
+ */
+public final class WhitelistStore {
+    private final Map<UUID, String> players = new ConcurrentHashMap<>();
+    private final Map<String, UUID> names = new ConcurrentHashMap<>();
+    private final Map<UUID, String> playersView = Collections.unmodifiableMap(players);
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private final Executor saveExecutor;
+    private final Logger logger;
+    private volatile WhitelistStorage storage;
+
+    /**
+     * @param saveExecutor executor to run asynchronous saves on
+     * @param logger       logger for failed saves
+     */
+    public WhitelistStore(final Executor saveExecutor, final Logger logger) {
+        this.saveExecutor = saveExecutor;
+        this.logger = logger;
+    }
+
+    /**
+     * Replaces all entries with the ones loaded from the given storage, which is used for all further modifications.
+     * Pending changes should be flushed before loading the storage.
+     *
+     * @param storage whitelist storage
+     * @throws IOException if loading the storage fails
+     */
+    public synchronized void load(final WhitelistStorage storage) throws IOException {
+        final Map<UUID, String> loadedPlayers = storage.load();
+        this.storage = storage;
+        players.clear();
+        names.clear();
+        for (final Map.Entry<UUID, String> entry : loadedPlayers.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Loads the given storage like {@link #load(WhitelistStorage)}, but only applies the differences to the current entries.
+     * Pending changes are written first.
+     *
+     * @param storage whitelist storage
+     * @return true if any entries were added, renamed, or removed
+     * @throws IOException if loading the storage fails
+     */
+    public synchronized boolean reload(final WhitelistStorage storage) throws IOException {
+        save();
+        final Map<UUID, String> loadedPlayers = storage.load();
+        this.storage = storage;
+
+        boolean changed = false;
+        for (final Iterator<Map.Entry<UUID, String>> iterator = players.entrySet().iterator(); iterator.hasNext(); ) {
+            final Map.Entry<UUID, String> entry = iterator.next();
+            if (!loadedPlayers.containsKey(entry.getKey())) {
+                names.remove(entry.getValue().toLowerCase(Locale.ROOT), entry.getKey());
+                iterator.remove();
+                changed = true;
+            }
+        }
+        for (final Map.Entry<UUID, String> entry : loadedPlayers.entrySet()) {
+            if (!entry.getValue().equals(players.get(entry.getKey()))) {
+                put(entry.getKey(), entry.getValue());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether the given file has not been changed since the storage last read or wrote it,
+     * so that change notifications caused by the whitelist's own saves can be ignored.
+     *
+     * @param fileName name of the file in the plugin folder
+     * @return true if the file is one of the storage's files and unchanged since it last read or wrote it
+     */
+    public boolean isUnchanged(final String fileName) {
+        return storage.isUnchanged(fileName);
+    }
+
+    public boolean contains(final UUID uuid) {
+        return players.containsKey(uuid);
+    }
+
+    /**
+     * @param name case-insensitive player name
+     * @return uuid of the whitelisted player with the given name, or null if not whitelisted
+     */
+    public @Nullable UUID getUuid(final String name) {
+        return names.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return unmodifiable view of all whitelisted players
+     */
+    public Map<UUID, String> getPlayers() {
+        return playersView;
+    }
+
+    /**
+     * Adds or renames a whitelisted player.
+     *
+     * @param uuid uuid of the player
+     * @param name name of the player
+     * @return true if the player was not whitelisted before
+     */
+    public synchronized boolean add(final UUID uuid, final String name) {
+        final boolean added = put(uuid, name);
+        storage.recordAdd(uuid, name);
+        scheduleSave();
+        return added;
+    }
+
+    /**
+     * Adds or renames all given players and synchronously saves the whitelist once.
+     *
+     * @param entries players mapped by uuid
+     * @return number of players that were not whitelisted before
+     */
+    public int addAll(final Map<UUID, String> entries) {
+        int added = 0;
+        synchronized (this) {
+            for (final Map.Entry<UUID, String> entry : entries.entrySet()) {
+                if (put(entry.getKey(), entry.getValue())) {
+                    added++;
+                }
+                storage.recordAdd(entry.getKey(), entry.getValue());
+            }
+            savePending.set(true);
+        }
+        flush();
+        return added;
+    }
+
+    public synchronized boolean remove(final UUID uuid) {
+        final String name = players.remove(uuid);
+        if (name == null) {
+            return false;
+        }
+
+        names.remove(name.toLowerCase(Locale.ROOT), uuid);
+        storage.recordRemove(uuid);
+        scheduleSave();
+        return true;
+    }
+
+    /**
+     * @param name case-insensitive player name
+     * @return uuid of the removed player, or null if not whitelisted
+     */
+    public synchronized @Nullable UUID remove(final String name) {
+        final UUID uuid = getUuid(name);
+        return uuid != null && remove(uuid) ? uuid : null;
+    }
+
+    /**
+     * Synchronously writes pending changes to the whitelist file.
+     */
+    public void flush() {
+        if (savePending.get()) {
+            save();
+        }
+    }
+
+    private boolean put(final UUID uuid, final String name) {
+        final String previousName = players.put(uuid, name);
+        if (previousName != null) {
+            names.remove(previousName.toLowerCase(Locale.ROOT), uuid);
+        }
+        names.put(name.toLowerCase(Locale.ROOT), uuid);
+        return previousName == null;
+    }
+
+    private void scheduleSave() {
+        if (savePending.compareAndSet(false, true)) {
+            saveExecutor.execute(this::save);
+        }
+    }
+
+    private void save() {
+        if (!savePending.getAndSet(false)) {
+            return;
+        }
+
+        try {
+            storage.save(playersView);
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, "Couldn't save the whitelisted players file!", e);
+        }
+    }
+}
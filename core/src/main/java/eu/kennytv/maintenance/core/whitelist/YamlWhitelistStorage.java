@@ -0,0 +1,82 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import eu.kennytv.maintenance.core.config.Config;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Stores the whitelist as a plain yaml mapping of uuids to names, rewriting the whole file on every save.
+ */
+public final class YamlWhitelistStorage implements WhitelistStorage {
+    private final FileStamps fileStamps = new FileStamps();
+    private final File file;
+    private final Logger logger;
+    private Config config;
+
+    public YamlWhitelistStorage(final File file, final Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    @Override
+    public synchronized Map<UUID, String> load() throws IOException {
+        config = new Config(file);
+        config.load();
+        fileStamps.record(file.toPath());
+        return readEntries(config, logger);
+    }
+
+    static Map<UUID, String> readEntries(final Config config, final Logger logger) {
+        final Map<UUID, String> players = new HashMap<>();
+        for (final Map.Entry<String, Object> entry : config.getValues().entrySet()) {
+            try {
+                players.put(UUID.fromString(entry.getKey()), String.valueOf(entry.getValue()));
+            } catch (final IllegalArgumentException e) {
+                logger.warning("Invalid WhitelistedPlayers entry: " + entry.getKey());
+            }
+        }
+        return players;
+    }
+
+    @Override
+    public synchronized void recordAdd(final UUID uuid, final String name) {
+        config.set(uuid.toString(), name);
+    }
+
+    @Override
+    public synchronized void recordRemove(final UUID uuid) {
+        config.remove(uuid.toString());
+    }
+
+    @Override
+    public synchronized void save(final Map<UUID, String> players) throws IOException {
+        config.save();
+        fileStamps.record(file.toPath());
+    }
+
+    @Override
+    public boolean isUnchanged(final String fileName) {
+        return fileName.equals(file.getName()) && fileStamps.isUnchanged(file.toPath());
+    }
+}
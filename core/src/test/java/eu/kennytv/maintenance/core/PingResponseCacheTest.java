@@ -0,0 +1,139 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PingResponseCacheTest {
+    @TempDir
+    static Path folder;
+    private static TestPlugin plugin;
+    private static Settings settings;
+
+    @BeforeAll
+    static void setUp() {
+        plugin = new TestPlugin(folder.toFile());
+        settings = plugin.getSettings();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        plugin.disable();
+    }
+
+    @BeforeEach
+    void resetPlayers() {
+        plugin.onlinePlayers = 0;
+        plugin.maxPlayers = 100;
+    }
+
+    @Test
+    void testGeneration() {
+        load("<red>Maintenance", "<dark_red>Maintenance", "<red>Come back later");
+        final PingResponse response = settings.getPingResponse();
+        assertSame(response, settings.getPingResponse());
+
+        settings.getPingResponseCache().invalidate();
+        final PingResponse rendered = settings.getPingResponse();
+        assertNotSame(response, rendered);
+        assertSame(rendered, settings.getPingResponse());
+
+        // Reloads bump the generation as well
+        settings.reloadConfigs();
+        assertNotSame(rendered, settings.getPingResponse());
+    }
+
+    @Test
+    void testStaticMessages() {
+        load("<red>Maintenance", "<dark_red>Maintenance", "<red>Come back later");
+        final PingResponse response = settings.getPingResponse();
+        settings.getPingResponseCache().timerTick();
+        plugin.onlinePlayers = 5;
+        plugin.maxPlayers = 50;
+        assertSame(response, settings.getPingResponse());
+    }
+
+    @Test
+    void testTimer() {
+        load("<red>Back in %TIMER%", "<dark_red>Maintenance", "<red>Come back later");
+        assertTimerDependent();
+        load("<red>Maintenance", "<dark_red>%TIMER%", "<red>Come back later");
+        assertTimerDependent();
+        load("<red>Maintenance", "<dark_red>Maintenance", "<red>Come back in %TIMER%");
+        assertTimerDependent();
+    }
+
+    @Test
+    void testPlayerCount() {
+        load("<red>Maintenance", "<dark_red>%ONLINE%/%MAX%", "<red>Come back later");
+        PingResponse response = settings.getPingResponse();
+        assertTrue(response.getPlayerCountMessage().endsWith("0/100"));
+
+        plugin.onlinePlayers = 5;
+        final PingResponse rendered = settings.getPingResponse();
+        assertNotSame(response, rendered);
+        assertTrue(rendered.getPlayerCountMessage().endsWith("5/100"));
+        assertSame(rendered, settings.getPingResponse());
+
+        plugin.maxPlayers = 50;
+        assertTrue(settings.getPingResponse().getPlayerCountMessage().endsWith("5/50"));
+
+        // Timer ticks leave it alone
+        response = settings.getPingResponse();
+        settings.getPingResponseCache().timerTick();
+        assertSame(response, settings.getPingResponse());
+
+        load("<red>%ONLINE% online", "<dark_red>Maintenance", "<red>Come back later");
+        assertPlayerCountDependent();
+        load("<red>Maintenance", "<dark_red>Maintenance", "<red>Up to %MAX% players");
+        assertPlayerCountDependent();
+    }
+
+    private static void assertTimerDependent() {
+        final PingResponse response = settings.getPingResponse();
+        plugin.onlinePlayers++;
+        assertSame(response, settings.getPingResponse());
+
+        settings.getPingResponseCache().timerTick();
+        final PingResponse rendered = settings.getPingResponse();
+        assertNotSame(response, rendered);
+        assertSame(rendered, settings.getPingResponse());
+    }
+
+    private static void assertPlayerCountDependent() {
+        final PingResponse response = settings.getPingResponse();
+        plugin.onlinePlayers++;
+        assertNotSame(response, settings.getPingResponse());
+    }
+
+    private static void load(final String pingMessage, final String playerCountMessage, final String hoverMessage) {
+        settings.getConfig().set("ping-message.messages", Collections.singletonList(pingMessage));
+        settings.getConfig().set("player-count-message.message", playerCountMessage);
+        settings.getConfig().set("player-list-hover-message.message", hoverMessage);
+        settings.saveConfig();
+        settings.reloadConfigs();
+    }
+}
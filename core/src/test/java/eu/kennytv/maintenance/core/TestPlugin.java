@@ -0,0 +1,120 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core;
+
+import eu.kennytv.maintenance.core.dump.PluginDump;
+import eu.kennytv.maintenance.core.util.SenderInfo;
+import eu.kennytv.maintenance.core.util.ServerType;
+import eu.kennytv.maintenance.core.util.Task;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Plugin without a platform, using the given data folder with the shipped config and language files.
+ * Only one instance can exist per JVM, since the api provider can only be set once.
+ */
+final class TestPlugin extends MaintenancePlugin {
+    private final Logger logger = Logger.getLogger("Maintenance");
+    private final File dataFolder;
+    volatile int onlinePlayers;
+    volatile int maxPlayers = 100;
+
+    TestPlugin(final File dataFolder) {
+        super("0.0.0-test", ServerType.SPIGOT);
+        this.dataFolder = dataFolder;
+        settings = new Settings(this);
+    }
+
+    @Override
+    public void async(final Runnable runnable) {
+        runnable.run();
+    }
+
+    @Override
+    protected void executeConsoleCommand(final String command) {
+    }
+
+    @Override
+    public void broadcast(final Component component) {
+    }
+
+    @Override
+    public Task startMaintenanceRunnable(final Runnable runnable) {
+        return () -> {
+        };
+    }
+
+    @Override
+    public CompletableFuture<@Nullable SenderInfo> getOfflinePlayer(final String name) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable SenderInfo> getOfflinePlayer(final UUID uuid) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public File getDataFolder() {
+        return dataFolder;
+    }
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public String getServerVersion() {
+        return "test";
+    }
+
+    @Override
+    public List<PluginDump> getPlugins() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected void loadIcon(final File file) {
+    }
+
+    @Override
+    protected void kickPlayers() {
+    }
+
+    @Override
+    protected File getPluginFile() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected int getOnlinePlayers() {
+        return onlinePlayers;
+    }
+
+    @Override
+    protected int getMaxPlayers() {
+        return maxPlayers;
+    }
+}
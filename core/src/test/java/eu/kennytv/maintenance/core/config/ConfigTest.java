@@ -23,6 +23,7 @@ import org.junit.jupiter.api.TestInstance;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -71,6 +72,7 @@ class ConfigTest {
         newlyLoaded.load();
 
         assertEquals(config.toString(), newlyLoaded.toString());
+        assertEquals(config.toString(), new String(Files.readAllBytes(saveTo.toPath()), StandardCharsets.UTF_8));
     }
 
     @Test
@@ -136,6 +138,26 @@ class ConfigTest {
         assertFalse(config.getComments().containsKey("mysql.use-ssl"));
     }
 
+    @Test
+    void testSectionIndex() throws IOException {
+        final Config config = new Config(getTestFile("config.yml"));
+        config.load();
+
+        config.set("a.b.c", 1);
+        assertEquals(1, config.getInt("a.b.c"));
+        assertEquals(1, config.getSection("a").getInt("b.c"));
+        assertSame(config.getSection("a.b"), config.getSection("a").getSection("b"));
+
+        config.getSection("a").set("b", "replaced");
+        assertFalse(config.contains("a.b.c"));
+        assertNull(config.getSection("a.b"));
+        assertEquals("replaced", config.getString("a.b"));
+
+        config.remove("a");
+        assertFalse(config.contains("a"));
+        assertFalse(config.contains("a.b"));
+    }
+
     private File getTestFile(final String path) {
         return new File("src/test/resources/" + path);
     }
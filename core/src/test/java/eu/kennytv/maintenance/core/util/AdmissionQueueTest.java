@@ -0,0 +1,86 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionQueueTest {
+
+    @Test
+    void testRate() {
+        final AdmissionQueue queue = new AdmissionQueue(2, 60_000, 0);
+        assertNull(queue.tryAdmit(UUID.randomUUID(), 0));
+        assertNull(queue.tryAdmit(UUID.randomUUID(), 0));
+
+        final UUID queued = UUID.randomUUID();
+        final AdmissionQueue.Ticket ticket = queue.tryAdmit(queued, 0);
+        assertNotNull(ticket);
+        assertEquals(1, ticket.getPosition());
+        assertEquals(1, ticket.getRetrySeconds());
+
+        // Half a second refills one token
+        assertNull(queue.tryAdmit(queued, 500));
+    }
+
+    @Test
+    void testKeepsPosition() {
+        final AdmissionQueue queue = new AdmissionQueue(1, 60_000, 0);
+        assertNull(queue.tryAdmit(UUID.randomUUID(), 0));
+
+        final UUID first = UUID.randomUUID();
+        final UUID second = UUID.randomUUID();
+        assertEquals(1, queue.tryAdmit(first, 0).getPosition());
+        final AdmissionQueue.Ticket secondTicket = queue.tryAdmit(second, 0);
+        assertEquals(2, secondTicket.getPosition());
+        assertEquals(2, secondTicket.getRetrySeconds());
+
+        // The first player has not retried yet, so the token is held back for them
+        assertEquals(2, queue.tryAdmit(second, 1000).getPosition());
+        assertNull(queue.tryAdmit(first, 1000));
+        assertEquals(1, queue.tryAdmit(second, 1000).getPosition());
+        assertNull(queue.tryAdmit(second, 2000));
+    }
+
+    @Test
+    void testExpiredPlace() {
+        final AdmissionQueue queue = new AdmissionQueue(1, 600_000, 0);
+        assertNull(queue.tryAdmit(UUID.randomUUID(), 0));
+
+        final UUID gone = UUID.randomUUID();
+        final UUID waiting = UUID.randomUUID();
+        queue.tryAdmit(gone, 0);
+        assertEquals(2, queue.tryAdmit(waiting, 0).getPosition());
+
+        assertEquals(2, queue.tryAdmit(waiting, 20_000).getPosition());
+
+        // The first player never came back and lost their place
+        assertNull(queue.tryAdmit(waiting, 40_000));
+        assertEquals(1, queue.tryAdmit(gone, 40_000).getPosition());
+    }
+
+    @Test
+    void testEnd() {
+        final AdmissionQueue queue = new AdmissionQueue(1, 1000, 0);
+        assertNull(queue.tryAdmit(UUID.randomUUID(), 0));
+        assertNotNull(queue.tryAdmit(UUID.randomUUID(), 0));
+        assertNull(queue.tryAdmit(UUID.randomUUID(), 1000));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import eu.kennytv.maintenance.lib.kyori.adventure.key.Key;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.event.ClickEvent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.event.HoverEvent;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.NamedTextColor;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.TextColor;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentConverterTest {
+
+    @Test
+    void testColorsAndDecorations() {
+        assertConverted(Component.text("Maintenance", TextColor.color(0xFBFFC2), TextDecoration.BOLD, TextDecoration.UNDERLINED));
+        assertConverted(Component.text("Maintenance", NamedTextColor.RED)
+                .decoration(TextDecoration.ITALIC, false)
+                .decoration(TextDecoration.OBFUSCATED, TextDecoration.State.TRUE));
+        // Hex value of a named color
+        assertConverted(Component.text("Maintenance", TextColor.color(0xFF5555)));
+    }
+
+    @Test
+    void testEvents() {
+        assertConverted(Component.text("Join our Discord")
+                .clickEvent(ClickEvent.openUrl("https://discord.gg/example"))
+                .hoverEvent(HoverEvent.showText(Component.text("Discord", NamedTextColor.GOLD).append(Component.text("!", TextColor.color(0x0FFFFF))))));
+        assertConverted(Component.text("Run").clickEvent(ClickEvent.runCommand("/maintenance status")));
+        assertConverted(Component.text("Suggest").clickEvent(ClickEvent.suggestCommand("/maintenance on")));
+        assertConverted(Component.text("Copy").clickEvent(ClickEvent.copyToClipboard("kennytv")));
+    }
+
+    @Test
+    void testTranslatable() {
+        assertConverted(Component.translatable("multiplayer.disconnect.server_shutdown"));
+        assertConverted(Component.translatable("chat.type.text", NamedTextColor.GRAY,
+                Component.text("kennytv", NamedTextColor.GOLD),
+                Component.text("Hello ").append(Component.translatable("gui.yes").decorate(TextDecoration.BOLD))));
+        // Converted via json
+        assertConverted(Component.translatable().key("maintenance.unknown").fallback("Fallback").build());
+    }
+
+    @Test
+    void testFontAndInsertion() {
+        assertConverted(Component.text("Uniform").font(Key.key("uniform")));
+        assertConverted(Component.text("Custom").font(Key.key("maintenance", "custom")).insertion("kennytv"));
+    }
+
+    @Test
+    void testChildren() {
+        assertConverted(Component.text()
+                .append(Component.text("Currently under maintenance", NamedTextColor.RED))
+                .append(Component.newline())
+                .append(Component.text("We will be back ", TextColor.color(0xFBFFC2))
+                        .append(Component.text("soon", NamedTextColor.AQUA, TextDecoration.ITALIC)
+                                .append(Component.keybind("key.jump")))
+                        .append(Component.text("!")))
+                .build());
+        assertConverted(Component.empty());
+    }
+
+    private static void assertConverted(final Component component) {
+        assertEquals(ComponentConverter.toPlatformJson(component), ComponentConverter.toPlatform(component));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    @Test
+    void testRender() {
+        final MessageTemplate template = MessageTemplate.compile("<prefix>Hello %PLAYER%, welcome to %SERVER%!");
+        assertTrue(template.hasPlaceholders());
+        assertTrue(template.hasPlaceholder("%SERVER%"));
+        assertFalse(template.hasPlaceholder("%TIMER%"));
+        assertEquals("<prefix>Hello kennytv, welcome to lobby!", template.render("%SERVER%", "lobby", "%PLAYER%", "kennytv"));
+        assertEquals("<prefix>Hello kennytv, welcome to lobby!", template.render(placeholder -> placeholder.equals("%PLAYER%") ? "kennytv" : "lobby"));
+    }
+
+    @Test
+    void testNoPlaceholders() {
+        final String message = "<red>100% done, 50 % to go, %lowercase% and %% are no placeholders%";
+        final MessageTemplate template = MessageTemplate.compile(message);
+        assertFalse(template.hasPlaceholders());
+        assertEquals(message, template.render("%lowercase%", "replaced"));
+        assertEquals(message, template.render(placeholder -> "replaced"));
+    }
+
+    @Test
+    void testAdjacentPlaceholders() {
+        final MessageTemplate template = MessageTemplate.compile("%HOURS%%MINUTES%:%SECONDS_LEFT%%");
+        assertEquals("0130:59%", template.render("%HOURS%", "01", "%MINUTES%", "30", "%SECONDS_LEFT%", "59"));
+
+        // A single percent sign right before a placeholder stays a literal
+        assertEquals("100%5", MessageTemplate.compile("100%%AMOUNT%").render("%AMOUNT%", "5"));
+    }
+
+    @Test
+    void testUnknownPlaceholders() {
+        final MessageTemplate template = MessageTemplate.compile("%KNOWN% and %UNKNOWN%");
+        assertEquals("value and %UNKNOWN%", template.render("%KNOWN%", "value"));
+        assertEquals("value and %UNKNOWN%", template.render(placeholder -> placeholder.equals("%KNOWN%") ? "value" : null));
+        // Replacement values are not compiled again
+        assertEquals("%UNKNOWN% and %UNKNOWN%", template.render("%KNOWN%", "%UNKNOWN%"));
+    }
+
+    @Test
+    void testOddReplacementCount() {
+        final MessageTemplate template = MessageTemplate.compile("%KNOWN%");
+        assertThrows(IllegalArgumentException.class, () -> template.render("%KNOWN%"));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalWhitelistStorageTest {
+    private static final UUID FIRST = UUID.fromString("a8179ff3-c201-4a75-bdaa-9d14aca6a83f");
+    private static final UUID SECOND = UUID.fromString("0e5ef3bb-52b1-4d7b-a3a8-6b8d4a3c2f40");
+    @TempDir
+    Path folder;
+
+    @Test
+    void testReplay() throws IOException {
+        write("WhitelistedPlayers.snapshot", "+" + FIRST + " kennytv");
+        write("WhitelistedPlayers.journal", "+" + SECOND + " Notch", "-" + FIRST, "+" + SECOND + " Dinnerbone");
+
+        final Map<UUID, String> players = createStorage().load();
+        assertEquals(1, players.size());
+        assertEquals("Dinnerbone", players.get(SECOND));
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        final JournalWhitelistStorage storage = createStorage();
+        final Map<UUID, String> players = storage.load();
+        add(storage, players, FIRST, "kennytv");
+        add(storage, players, SECOND, "Notch");
+        players.remove(FIRST);
+        storage.recordRemove(FIRST);
+        storage.save(players);
+
+        assertEquals(players, createStorage().load());
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        final JournalWhitelistStorage storage = createStorage();
+        final Map<UUID, String> players = storage.load();
+        for (int i = 0; i < 1024; i++) {
+            add(storage, players, FIRST, "name" + i);
+        }
+        storage.save(players);
+        assertTrue(Files.exists(folder.resolve("WhitelistedPlayers.journal")));
+
+        // One record over the threshold
+        add(storage, players, SECOND, "Notch");
+        storage.save(players);
+        assertFalse(Files.exists(folder.resolve("WhitelistedPlayers.journal")));
+        // Generation line and two players
+        assertEquals(3, Files.readAllLines(folder.resolve("WhitelistedPlayers.snapshot")).size());
+        assertEquals(players, createStorage().load());
+    }
+
+    @Test
+    void testTornLastLine() throws IOException {
+        write("WhitelistedPlayers.journal", "+" + FIRST + " kennytv", "-" + FIRST, "+" + SECOND + " Notch", "+" + FIRST.toString().substring(0, 20));
+
+        final Map<UUID, String> players = createStorage().load();
+        assertEquals(1, players.size());
+        assertEquals("Notch", players.get(SECOND));
+    }
+
+    @Test
+    void testMigration() throws IOException {
+        write("WhitelistedPlayers.yml", FIRST + ": kennytv", SECOND + ": Notch");
+
+        final Map<UUID, String> players = createStorage().load();
+        assertEquals(2, players.size());
+        assertEquals("kennytv", players.get(FIRST));
+        assertTrue(Files.exists(folder.resolve("WhitelistedPlayers.snapshot")));
+
+        // Only migrated once, later changes to the yaml file are ignored
+        write("WhitelistedPlayers.yml", FIRST + ": kennytv");
+        assertEquals(players, createStorage().load());
+    }
+
+    @Test
+    void testStaleJournalAfterCompaction() throws IOException {
+        final JournalWhitelistStorage storage = createStorage();
+        final Map<UUID, String> players = storage.load();
+        add(storage, players, FIRST, "kennytv");
+        add(storage, players, SECOND, "Notch");
+        storage.save(players);
+        final byte[] staleJournal = Files.readAllBytes(folder.resolve("WhitelistedPlayers.journal"));
+
+        players.remove(FIRST);
+        storage.recordRemove(FIRST);
+        for (int i = 0; i < 1024; i++) {
+            add(storage, players, SECOND, "name" + i);
+        }
+        storage.save(players);
+        assertFalse(Files.exists(folder.resolve("WhitelistedPlayers.journal")));
+
+        // Crashed after writing the snapshot, but before deleting the journal
+        Files.write(folder.resolve("WhitelistedPlayers.journal"), staleJournal);
+        assertEquals(players, createStorage().load());
+        assertFalse(Files.exists(folder.resolve("WhitelistedPlayers.journal")));
+
+        // Records appended afterwards are replayed again
+        final JournalWhitelistStorage reloadedStorage = createStorage();
+        final Map<UUID, String> reloadedPlayers = reloadedStorage.load();
+        add(reloadedStorage, reloadedPlayers, FIRST, "kennytv");
+        reloadedStorage.save(reloadedPlayers);
+        assertEquals(reloadedPlayers, createStorage().load());
+    }
+
+    private JournalWhitelistStorage createStorage() {
+        return new JournalWhitelistStorage(folder.toFile(), Logger.getLogger("JournalWhitelistStorageTest"));
+    }
+
+    private void add(final JournalWhitelistStorage storage, final Map<UUID, String> players, final UUID uuid, final String name) {
+        players.put(uuid, name);
+        storage.recordAdd(uuid, name);
+    }
+
+    private void write(final String fileName, final String... lines) throws IOException {
+        Files.write(folder.resolve(fileName), (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
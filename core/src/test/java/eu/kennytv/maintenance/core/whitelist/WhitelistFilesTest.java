@@ -0,0 +1,76 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhitelistFilesTest {
+    private static final UUID FIRST = UUID.fromString("a8179ff3-c201-4a75-bdaa-9d14aca6a83f");
+    private static final UUID SECOND = UUID.fromString("0e5ef3bb-52b1-4d7b-a3a8-6b8d4a3c2f40");
+    @TempDir
+    Path folder;
+
+    @Test
+    void testReadJsonLines() throws IOException {
+        final Path file = folder.resolve("whitelist.jsonl");
+        Files.write(file, Arrays.asList(
+                "{\"uuid\":\"" + FIRST + "\",\"name\":\"kennytv\"}",
+                "{\"name\":\"Notch\"}",
+                "null",
+                "[]",
+                "{\"uuid\":\"" + SECOND + "\"}",
+                "{\"uuid\":\"invalid\",\"name\":\"Dinnerbone\"}",
+                "{broken"
+        ), StandardCharsets.UTF_8);
+
+        final Map<UUID, String> players = new HashMap<>();
+        final List<String> names = new ArrayList<>();
+        assertEquals(5, WhitelistFiles.read(file, players, names, lines -> {
+        }));
+        assertEquals(1, players.size());
+        assertEquals("kennytv", players.get(FIRST));
+        assertEquals(Arrays.asList("Notch"), names);
+    }
+
+    @Test
+    void testReadCsv() throws IOException {
+        final Path file = folder.resolve("whitelist.csv");
+        Files.write(file, Arrays.asList("uuid,name", FIRST + ",kennytv", "Notch", SECOND + ",", "invalid,Dinnerbone"), StandardCharsets.UTF_8);
+
+        final Map<UUID, String> players = new HashMap<>();
+        final List<String> names = new ArrayList<>();
+        assertEquals(2, WhitelistFiles.read(file, players, names, lines -> {
+        }));
+        assertEquals(1, players.size());
+        assertEquals("kennytv", players.get(FIRST));
+        assertEquals(Arrays.asList("Notch"), names);
+    }
+}
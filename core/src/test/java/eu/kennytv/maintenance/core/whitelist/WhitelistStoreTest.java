@@ -0,0 +1,184 @@
+/*
+ * This file is part of Maintenance - https://github.com/kennytv/Maintenance
+ * Copyright (C) 2018-2024 kennytv (https://github.com/kennytv)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.kennytv.maintenance.core.whitelist;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhitelistStoreTest {
+    private static final UUID FIRST = UUID.fromString("a8179ff3-c201-4a75-bdaa-9d14aca6a83f");
+    private static final UUID SECOND = UUID.fromString("0e5ef3bb-52b1-4d7b-a3a8-6b8d4a3c2f40");
+    private static final UUID THIRD = UUID.fromString("5b2c7e2e-8f3d-4c71-9a8e-1f6d0c9b4a22");
+    private final Queue<Runnable> saveTasks = new ArrayDeque<>();
+
+    @Test
+    void testNameIndex() throws IOException {
+        final WhitelistStore store = createStore(new MemoryStorage());
+        assertTrue(store.add(FIRST, "kennytv"));
+        assertEquals(FIRST, store.getUuid("KennyTV"));
+
+        // Renaming replaces the old name
+        assertFalse(store.add(FIRST, "Notch"));
+        assertNull(store.getUuid("kennytv"));
+        assertEquals(FIRST, store.getUuid("notch"));
+
+        assertEquals(FIRST, store.remove("NOTCH"));
+        assertFalse(store.contains(FIRST));
+        assertNull(store.getUuid("notch"));
+        assertNull(store.remove("notch"));
+    }
+
+    @Test
+    void testNameTakenOver() throws IOException {
+        final WhitelistStore store = createStore(new MemoryStorage());
+        store.add(FIRST, "kennytv");
+        store.add(SECOND, "KennyTV");
+        assertEquals(SECOND, store.getUuid("kennytv"));
+
+        // Renaming or removing the previous owner of the name must not remove the new owner's entry
+        store.add(FIRST, "Notch");
+        assertEquals(SECOND, store.getUuid("kennytv"));
+        store.remove(FIRST);
+        assertEquals(SECOND, store.getUuid("kennytv"));
+    }
+
+    @Test
+    void testReload() throws IOException {
+        final MemoryStorage storage = new MemoryStorage();
+        storage.saved.put(FIRST, "kennytv");
+        storage.saved.put(SECOND, "Notch");
+        final WhitelistStore store = createStore(storage);
+
+        final MemoryStorage editedStorage = new MemoryStorage();
+        editedStorage.saved.put(SECOND, "Dinnerbone");
+        editedStorage.saved.put(THIRD, "jeb_");
+        assertTrue(store.reload(editedStorage));
+        assertEquals(editedStorage.saved, store.getPlayers());
+        assertNull(store.getUuid("kennytv"));
+        assertNull(store.getUuid("notch"));
+        assertEquals(SECOND, store.getUuid("dinnerbone"));
+        assertEquals(THIRD, store.getUuid("jeb_"));
+
+        assertFalse(store.reload(editedStorage));
+    }
+
+    @Test
+    void testReloadSavesPendingChanges() throws IOException {
+        final MemoryStorage storage = new MemoryStorage();
+        final WhitelistStore store = createStore(storage);
+        store.add(FIRST, "kennytv");
+        assertEquals(0, storage.saves);
+
+        store.reload(new MemoryStorage());
+        assertEquals(1, storage.saves);
+        assertEquals("kennytv", storage.saved.get(FIRST));
+    }
+
+    @Test
+    void testCoalescedSaves() throws IOException {
+        final MemoryStorage storage = new MemoryStorage();
+        final WhitelistStore store = createStore(storage);
+        store.add(FIRST, "kennytv");
+        store.add(SECOND, "Notch");
+        store.remove(FIRST);
+        assertEquals(1, saveTasks.size());
+        assertEquals(3, storage.records);
+
+        runSaveTasks();
+        assertEquals(1, storage.saves);
+        assertEquals(store.getPlayers(), storage.saved);
+    }
+
+    @Test
+    void testAddAll() throws IOException {
+        final MemoryStorage storage = new MemoryStorage();
+        final WhitelistStore store = createStore(storage);
+        store.add(FIRST, "kennytv");
+
+        final Map<UUID, String> players = new LinkedHashMap<>();
+        players.put(FIRST, "Notch");
+        players.put(SECOND, "Dinnerbone");
+        players.put(THIRD, "jeb_");
+        assertEquals(2, store.addAll(players));
+
+        // Saved right away, including the change made before
+        assertEquals(1, storage.saves);
+        assertEquals(players, storage.saved);
+        assertEquals(FIRST, store.getUuid("notch"));
+        assertNull(store.getUuid("kennytv"));
+
+        // The save scheduled before has nothing left to write
+        runSaveTasks();
+        assertEquals(1, storage.saves);
+    }
+
+    private WhitelistStore createStore(final MemoryStorage storage) throws IOException {
+        final WhitelistStore store = new WhitelistStore(saveTasks::add, Logger.getLogger("WhitelistStoreTest"));
+        store.load(storage);
+        return store;
+    }
+
+    private void runSaveTasks() {
+        Runnable task;
+        while ((task = saveTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static final class MemoryStorage implements WhitelistStorage {
+        private final Map<UUID, String> saved = new HashMap<>();
+        private int records;
+        private int saves;
+
+        @Override
+        public Map<UUID, String> load() {
+            return new HashMap<>(saved);
+        }
+
+        @Override
+        public void recordAdd(final UUID uuid, final String name) {
+            records++;
+        }
+
+        @Override
+        public void recordRemove(final UUID uuid) {
+            records++;
+        }
+
+        @Override
+        public void save(final Map<UUID, String> players) {
+            saved.clear();
+            saved.putAll(players);
+            saves++;
+        }
+
+        @Override
+        public boolean isUnchanged(final String fileName) {
+            return false;
+        }
+    }
+}
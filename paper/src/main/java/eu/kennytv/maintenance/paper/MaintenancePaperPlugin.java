@@ -65,7 +65,7 @@ public final class MaintenancePaperPlugin extends MaintenancePlugin {
         this.plugin = plugin;
         this.audiences = BukkitAudiences.create(plugin);
 
-        settings = new Settings(this, "mysql", "proxied-maintenance-servers", "fallback", "waiting-server", "commands-on-single-maintenance-enable", "commands-on-single-maintenance-disable");
+        settings = new Settings(this, "mysql", "proxied-maintenance-servers", "fallback", "waiting-server", "player-drain", "commands-on-single-maintenance-enable", "commands-on-single-maintenance-disable");
 
         sendEnableMessage();
 
@@ -156,6 +156,20 @@ public final class MaintenancePaperPlugin extends MaintenancePlugin {
         getServer().getScheduler().runTaskAsynchronously(plugin, runnable);
     }
 
+    /**
+     * Runs the given runnable on the main thread with the next tick.
+     *
+     * @param runnable runnable to run on the main thread
+     */
+    public void sync(final Runnable runnable) {
+        if (FOLIA) {
+            // Preliminary Folia support
+            runnable.run();
+            return;
+        }
+        getServer().getScheduler().runTask(plugin, runnable);
+    }
+
     @Override
     protected void executeConsoleCommand(final String command) {
         getServer().dispatchCommand(getServer().getConsoleSender(), command);
@@ -168,13 +182,16 @@ public final class MaintenancePaperPlugin extends MaintenancePlugin {
 
     @Override
     protected void kickPlayers() {
+        // Rendered once, as it is the same for every player
+        final Component kickMessage = settings.getKickMessage();
+        final net.kyori.adventure.text.Component paperKickMessage = ComponentUtil.PAPER ? ComponentUtil.toPaperComponent(kickMessage) : null;
+        final String legacyKickMessage = ComponentUtil.PAPER ? null : ComponentUtil.toLegacy(kickMessage);
         for (final Player p : getServer().getOnlinePlayers()) {
             if (!hasPermission(p, "bypass") && !settings.isWhitelisted(p.getUniqueId())) {
-                final Component kickMessage = settings.getKickMessage();
                 if (ComponentUtil.PAPER) {
-                    p.kick(ComponentUtil.toPaperComponent(kickMessage));
+                    p.kick(paperKickMessage);
                 } else {
-                    p.kickPlayer(ComponentUtil.toLegacy(kickMessage));
+                    p.kickPlayer(legacyKickMessage);
                 }
             }
         }
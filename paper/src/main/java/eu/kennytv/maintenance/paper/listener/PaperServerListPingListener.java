@@ -21,7 +21,9 @@ import com.destroystokyo.paper.event.server.PaperServerListPingEvent;
 import com.destroystokyo.paper.profile.PlayerProfile;
 import com.destroystokyo.paper.profile.ProfileProperty;
 import com.mojang.authlib.GameProfile;
+import eu.kennytv.maintenance.core.PingResponse;
 import eu.kennytv.maintenance.core.Settings;
+import eu.kennytv.maintenance.core.SettingsSnapshot;
 import eu.kennytv.maintenance.paper.MaintenancePaperPlugin;
 import eu.kennytv.maintenance.paper.util.ComponentUtil;
 import java.util.Collection;
@@ -50,28 +52,30 @@ public final class PaperServerListPingListener implements Listener {
             return;
         }
 
-        if (settings.isEnablePingMessages()) {
+        final PingResponse response = settings.getPingResponse();
+        final SettingsSnapshot snapshot = response.getSettings();
+        if (snapshot.isEnablePingMessages()) {
             if (ComponentUtil.PAPER) {
-                event.motd(ComponentUtil.toPaperComponent(settings.getRandomPingMessage()));
+                event.motd(response.getPlatformDescription(ComponentUtil::toPaperComponent));
             } else {
-                event.setMotd(ComponentUtil.toLegacy(settings.getRandomPingMessage()));
+                event.setMotd(response.getPlatformDescription(ComponentUtil::toLegacy));
             }
         }
 
-        if (settings.hasCustomPlayerCountMessage()) {
+        if (snapshot.hasCustomPlayerCountMessage()) {
             event.setProtocolVersion(-1);
-            event.setVersion(settings.getLegacyParsedPlayerCountMessage());
+            event.setVersion(response.getPlayerCountMessage());
         }
 
-        if (settings.hasCustomPlayerCountHoverMessage()) {
+        if (snapshot.hasCustomPlayerCountHoverMessage()) {
             final List<PlayerProfile> sample = event.getPlayerSample();
             sample.clear();
-            for (final String string : settings.getLegacyParsedPlayerCountHoverLines()) {
+            for (final String string : response.getPlayerCountHoverLines()) {
                 sample.add(new DummyProfile(string));
             }
         }
 
-        if (settings.hasCustomIcon() && plugin.getFavicon() != null) {
+        if (snapshot.hasCustomIcon() && plugin.getFavicon() != null) {
             event.setServerIcon(plugin.getFavicon());
         }
     }
@@ -19,12 +19,15 @@ package eu.kennytv.maintenance.paper.listener;
 
 import eu.kennytv.maintenance.core.Settings;
 import eu.kennytv.maintenance.core.listener.JoinListenerBase;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
+import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import eu.kennytv.maintenance.paper.MaintenancePaperPlugin;
 import eu.kennytv.maintenance.paper.util.BukkitSenderInfo;
 import eu.kennytv.maintenance.paper.util.ComponentUtil;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerLoginEvent;
 
 public final class PlayerLoginListener extends JoinListenerBase implements Listener {
@@ -36,18 +39,47 @@ public final class PlayerLoginListener extends JoinListenerBase implements Liste
     }
 
     @EventHandler
-    public void postLogin(final PlayerLoginEvent event) {
-        final BukkitSenderInfo sender = new BukkitSenderInfo(event.getPlayer());
-        if (shouldKick(sender)) {
-            event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
+    public void preLogin(final AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        // Refuse definitely denied players off the main thread
+        if (shouldKickEarly(event.getUniqueId(), event.getName())) {
             if (ComponentUtil.PAPER) {
-                event.kickMessage(ComponentUtil.toPaperComponent(settings.getKickMessage()));
+                event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, ComponentUtil.toPaperComponent(settings.getKickMessage()));
             } else {
-                event.setKickMessage(ComponentUtil.toLegacy(settings.getKickMessage()));
+                event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, ComponentUtil.toLegacy(settings.getKickMessage()));
             }
+            if (settings.isJoinNotifications()) {
+                // Online players and their permissions may only be accessed on the main thread
+                final String name = event.getName();
+                plugin.sync(() -> broadcastJoinNotification(name));
+            }
+        }
+    }
+
+    @EventHandler
+    public void postLogin(final PlayerLoginEvent event) {
+        final BukkitSenderInfo sender = new BukkitSenderInfo(event.getPlayer());
+        if (shouldKick(sender)) {
+            kick(event, settings.getKickMessage());
             if (settings.isJoinNotifications()) {
                 broadcastJoinNotification(sender.getName());
             }
+            return;
+        }
+
+        final AdmissionQueue.Ticket ticket = checkAdmission(sender);
+        if (ticket != null) {
+            kick(event, getAdmissionMessage(ticket, true));
+        }
+    }
+
+    private void kick(final PlayerLoginEvent event, final Component message) {
+        event.setResult(PlayerLoginEvent.Result.KICK_OTHER);
+        if (ComponentUtil.PAPER) {
+            event.kickMessage(ComponentUtil.toPaperComponent(message));
+        } else {
+            event.setKickMessage(ComponentUtil.toLegacy(message));
         }
     }
 
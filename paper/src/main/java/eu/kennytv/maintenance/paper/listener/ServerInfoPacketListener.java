@@ -24,7 +24,9 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.wrappers.WrappedGameProfile;
 import com.comphenix.protocol.wrappers.WrappedServerPing;
+import eu.kennytv.maintenance.core.PingResponse;
 import eu.kennytv.maintenance.core.Settings;
+import eu.kennytv.maintenance.core.SettingsSnapshot;
 import eu.kennytv.maintenance.paper.MaintenancePaperBase;
 import eu.kennytv.maintenance.paper.MaintenancePaperPlugin;
 import eu.kennytv.maintenance.paper.util.ComponentUtil;
@@ -55,18 +57,20 @@ public final class ServerInfoPacketListener extends PacketAdapter implements Lis
         }
 
         final WrappedServerPing ping = event.getPacket().getServerPings().read(0);
-        if (settings.isEnablePingMessages()) {
-            ping.setMotD(ComponentUtil.toLegacy(settings.getRandomPingMessage()));
+        final PingResponse response = settings.getPingResponse();
+        final SettingsSnapshot snapshot = response.getSettings();
+        if (snapshot.isEnablePingMessages()) {
+            ping.setMotD(response.getPlatformDescription(ComponentUtil::toLegacy));
         }
 
-        if (settings.hasCustomPlayerCountMessage()) {
+        if (snapshot.hasCustomPlayerCountMessage()) {
             ping.setVersionProtocol(1);
-            ping.setVersionName(settings.getLegacyParsedPlayerCountMessage());
+            ping.setVersionName(response.getPlayerCountMessage());
         }
 
-        if (settings.hasCustomPlayerCountHoverMessage()) {
+        if (snapshot.hasCustomPlayerCountHoverMessage()) {
             final List<WrappedGameProfile> players = new ArrayList<>();
-            for (final String string : settings.getLegacyParsedPlayerCountHoverLines()) {
+            for (final String string : response.getPlayerCountHoverLines()) {
                 players.add(new WrappedGameProfile(ZERO_UUID, string));
             }
             ping.setPlayers(players);
@@ -76,7 +80,7 @@ public final class ServerInfoPacketListener extends PacketAdapter implements Lis
     @EventHandler(priority = EventPriority.HIGHEST)
     public void serverListPing(final ServerListPingEvent event) {
         // Set the icon here, not in the packet listener, as it's broken for 1.13+ clients on older server versions
-        if (settings.isMaintenance() && settings.hasCustomIcon() && plugin.getFavicon() != null) {
+        if (settings.isMaintenance() && settings.getSnapshot().hasCustomIcon() && plugin.getFavicon() != null) {
             try {
                 event.setServerIcon(plugin.getFavicon());
             } catch (final UnsupportedOperationException ignored) {
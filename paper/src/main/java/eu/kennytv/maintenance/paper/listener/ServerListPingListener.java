@@ -17,7 +17,9 @@
  */
 package eu.kennytv.maintenance.paper.listener;
 
+import eu.kennytv.maintenance.core.PingResponse;
 import eu.kennytv.maintenance.core.Settings;
+import eu.kennytv.maintenance.core.SettingsSnapshot;
 import eu.kennytv.maintenance.paper.MaintenancePaperPlugin;
 import eu.kennytv.maintenance.paper.util.ComponentUtil;
 import org.bukkit.event.EventHandler;
@@ -40,19 +42,22 @@ public final class ServerListPingListener implements Listener {
             return;
         }
 
-        if (settings.hasCustomPlayerCountMessage()) {
+        // Flags and rendered texts from the same settings generation
+        final PingResponse response = settings.getPingResponse();
+        final SettingsSnapshot snapshot = response.getSettings();
+        if (snapshot.hasCustomPlayerCountMessage()) {
             event.setMaxPlayers(0);
         }
 
-        if (settings.isEnablePingMessages()) {
+        if (snapshot.isEnablePingMessages()) {
             if (ComponentUtil.PAPER) {
-                event.motd(ComponentUtil.toPaperComponent(settings.getRandomPingMessage()));
+                event.motd(response.getPlatformDescription(ComponentUtil::toPaperComponent));
             } else {
-                event.setMotd(ComponentUtil.toLegacy(settings.getRandomPingMessage()));
+                event.setMotd(response.getPlatformDescription(ComponentUtil::toLegacy));
             }
         }
 
-        if (settings.hasCustomIcon() && plugin.getFavicon() != null) {
+        if (snapshot.hasCustomIcon() && plugin.getFavicon() != null) {
             try {
                 event.setServerIcon(plugin.getFavicon());
             } catch (final UnsupportedOperationException ignored) {
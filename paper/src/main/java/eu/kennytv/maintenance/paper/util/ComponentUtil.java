@@ -17,18 +17,16 @@
  */
 package eu.kennytv.maintenance.paper.util;
 
-import com.google.gson.JsonElement;
+import eu.kennytv.maintenance.core.util.ComponentConverter;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 
 public final class ComponentUtil {
 
     public static final boolean PAPER = isPaper();
 
     public static Component toPaperComponent(final eu.kennytv.maintenance.lib.kyori.adventure.text.Component component) {
-        final JsonElement json = eu.kennytv.maintenance.lib.kyori.adventure.text.serializer.gson.GsonComponentSerializer.gson().serializeToTree(component);
-        return GsonComponentSerializer.gson().deserializeFromTree(json);
+        return ComponentConverter.toPlatform(component);
     }
 
     public static String toLegacy(final eu.kennytv.maintenance.lib.kyori.adventure.text.Component component) {
@@ -35,6 +35,7 @@ subproject("paper")
 subproject("sponge")
 subproject("bungee")
 subproject("velocity")
+subproject("benchmarks")
 
 setupSubproject("maintenance") {
     projectDir = file("universal")
@@ -72,7 +72,7 @@ import org.spongepowered.plugin.metadata.model.PluginContributor;
 public final class MaintenanceSpongePlugin extends MaintenancePlugin {
 
     private static final String[] UNSUPPORTED_FIELDS = {
-            "mysql", "proxied-maintenance-servers", "fallback", "waiting-server",
+            "mysql", "proxied-maintenance-servers", "fallback", "waiting-server", "player-drain",
             "playercountmessage", "enable-timerspecific-playercountmessage", "timer-playercountmessage",
             "commands-on-single-maintenance-enable", "commands-on-single-maintenance-disable",
     };
@@ -149,6 +149,16 @@ public final class MaintenanceSpongePlugin extends MaintenancePlugin {
         game.asyncScheduler().submit(task);
     }
 
+    /**
+     * Runs the given runnable on the main thread with the next tick.
+     *
+     * @param runnable runnable to run on the main thread
+     */
+    public void sync(final Runnable runnable) {
+        final org.spongepowered.api.scheduler.Task task = org.spongepowered.api.scheduler.Task.builder().plugin(container).execute(runnable).build();
+        game.server().scheduler().submit(task);
+    }
+
     @Override
     protected void executeConsoleCommand(final String command) {
         try {
@@ -217,11 +227,6 @@ public final class MaintenanceSpongePlugin extends MaintenancePlugin {
         return getServer().maxPlayers();
     }
 
-    @Override
-    protected String getPluginFolder() {
-        return "mods/";
-    }
-
     @Override
     public Logger getLogger() {
         return logger;
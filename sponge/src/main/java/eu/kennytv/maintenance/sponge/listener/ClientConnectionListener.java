@@ -19,6 +19,7 @@ package eu.kennytv.maintenance.sponge.listener;
 
 import eu.kennytv.maintenance.core.Settings;
 import eu.kennytv.maintenance.core.listener.JoinListenerBase;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
 import eu.kennytv.maintenance.lib.kyori.adventure.text.Component;
 import eu.kennytv.maintenance.sponge.MaintenanceSpongePlugin;
 import eu.kennytv.maintenance.sponge.util.ComponentUtil;
@@ -37,14 +38,38 @@ public final class ClientConnectionListener extends JoinListenerBase {
         this.plugin = plugin;
     }
 
+    @Listener
+    public void auth(final ServerSideConnectionEvent.Auth event) {
+        if (event.isCancelled()) return;
+
+        // Refuse definitely denied players before the player is created
+        final String name = event.profile().name().orElse(null);
+        if (name != null && shouldKickEarly(event.profile().uniqueId(), name)) {
+            event.setCancelled(true);
+            event.setMessage(ComponentUtil.toSponge(settings.getKickMessage()));
+            if (settings.isJoinNotifications()) {
+                // The auth event is called off the main thread
+                plugin.sync(() -> broadcastJoinNotification(name));
+            }
+        }
+    }
+
     @Listener
     public void login(final ServerSideConnectionEvent.Login event) {
-        if (shouldKick(new SpongeUser(event.user()), false)) {
+        final SpongeUser user = new SpongeUser(event.user());
+        if (shouldKick(user, false)) {
             event.setCancelled(true);
             event.setMessage(ComponentUtil.toSponge(settings.getKickMessage()));
             if (settings.isJoinNotifications()) {
                 broadcastJoinNotification(event.user().name());
             }
+            return;
+        }
+
+        final AdmissionQueue.Ticket ticket = checkAdmission(user);
+        if (ticket != null) {
+            event.setCancelled(true);
+            event.setMessage(ComponentUtil.toSponge(getAdmissionMessage(ticket, true)));
         }
     }
 
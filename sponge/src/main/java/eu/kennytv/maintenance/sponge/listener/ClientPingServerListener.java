@@ -17,7 +17,9 @@
  */
 package eu.kennytv.maintenance.sponge.listener;
 
+import eu.kennytv.maintenance.core.PingResponse;
 import eu.kennytv.maintenance.core.Settings;
+import eu.kennytv.maintenance.core.SettingsSnapshot;
 import eu.kennytv.maintenance.sponge.MaintenanceSpongePlugin;
 import eu.kennytv.maintenance.sponge.util.ComponentUtil;
 import java.util.List;
@@ -43,27 +45,29 @@ public final class ClientPingServerListener {
         }
 
         final ClientPingServerEvent.Response response = event.response();
-        if (settings.hasCustomPlayerCountMessage()) {
+        final PingResponse pingResponse = settings.getPingResponse();
+        final SettingsSnapshot snapshot = pingResponse.getSettings();
+        if (snapshot.hasCustomPlayerCountMessage()) {
             //TODO versionmessage possible without much trouble?
             // (spoiler: no, it isn't)
             response.players().ifPresent(players -> players.setMax(0));
         }
 
-        if (settings.isEnablePingMessages()) {
-            response.setDescription(ComponentUtil.toSponge(settings.getRandomPingMessage()));
+        if (snapshot.isEnablePingMessages()) {
+            response.setDescription(pingResponse.getPlatformDescription(ComponentUtil::toSponge));
         }
 
-        if (settings.hasCustomPlayerCountHoverMessage()) {
+        if (snapshot.hasCustomPlayerCountHoverMessage()) {
             response.players().ifPresent(players -> {
                 final List<GameProfile> profiles = players.profiles();
                 profiles.clear();
-                for (final String string : settings.getLegacyParsedPlayerCountHoverLines()) {
+                for (final String string : pingResponse.getPlayerCountHoverLines()) {
                     profiles.add(GameProfile.of(UUID.randomUUID(), string));
                 }
             });
         }
 
-        if (settings.hasCustomIcon() && plugin.getFavicon() != null) {
+        if (snapshot.hasCustomIcon() && plugin.getFavicon() != null) {
             response.setFavicon(plugin.getFavicon());
         }
     }
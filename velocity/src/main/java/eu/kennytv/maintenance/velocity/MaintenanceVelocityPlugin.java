@@ -42,7 +42,6 @@ import eu.kennytv.maintenance.core.hook.ServerListPlusHook;
 import eu.kennytv.maintenance.core.proxy.MaintenanceProxyPlugin;
 import eu.kennytv.maintenance.core.proxy.SettingsProxy;
 import eu.kennytv.maintenance.core.proxy.hook.LuckPermsProxyHook;
-import eu.kennytv.maintenance.core.proxy.util.ProfileLookup;
 import eu.kennytv.maintenance.core.proxy.util.ProxyOfflineSenderInfo;
 import eu.kennytv.maintenance.core.util.MaintenanceVersion;
 import eu.kennytv.maintenance.core.util.SenderInfo;
@@ -60,6 +59,7 @@ import eu.kennytv.maintenance.velocity.util.VelocityTask;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -94,6 +94,7 @@ public final class MaintenanceVelocityPlugin extends MaintenanceProxyPlugin {
     @Subscribe
     public void onEnable(final ProxyInitializeEvent event) {
         settingsProxy = new SettingsProxy(this);
+        loadProfileCache();
         settings = settingsProxy;
 
         metricsFactory.make(this, 16502);
@@ -142,55 +143,80 @@ public final class MaintenanceVelocityPlugin extends MaintenanceProxyPlugin {
 
     @Override
     protected void kickPlayersFromProxy() {
+        // Rendered once, as it is the same for every player
+        final net.kyori.adventure.text.Component kickMessage = ComponentUtil.toVelocity(settingsProxy.getKickMessage());
+        final List<Player> players = new ArrayList<>();
         for (final Player p : server.getAllPlayers()) {
             if (!hasPermission(p, "bypass") && !settingsProxy.isWhitelisted(p.getUniqueId())) {
-                p.disconnect(ComponentUtil.toVelocity(settingsProxy.getKickMessage()));
+                players.add(p);
             }
         }
+
+        drainPlayers(players, player -> {
+            player.disconnect(kickMessage);
+            return null;
+        }, "Kicking players");
     }
 
     @Override
     protected void kickPlayers(final Server server, final Server fallback) {
         final RegisteredServer fallbackServer = fallback != null ? ((VelocityServer) fallback).getServer() : null;
         final boolean checkForFallback = fallbackServer != null && !isMaintenance(fallback);
+        final net.kyori.adventure.text.Component activatedMessage = ComponentUtil.toVelocity(settingsProxy.getMessage("singleMaintenanceActivated", "%SERVER%", server.getName()));
+        final net.kyori.adventure.text.Component kickMessage = ComponentUtil.toVelocity(settingsProxy.getFullServerKickMessage(server.getName()));
+        final List<Player> players = new ArrayList<>();
         for (final Player player : ((VelocityServer) server).getServer().getPlayersConnected()) {
             if (!hasPermission(player, "bypass") && !settingsProxy.isWhitelisted(player.getUniqueId())) {
-                if (checkForFallback) {
-                    player.sendMessage(ComponentUtil.toVelocity(settingsProxy.getMessage("singleMaintenanceActivated", "%SERVER%", server.getName())));
-                    // Kick the player if fallback server is not reachable
-                    player.createConnectionRequest(fallbackServer).connect().whenComplete((result, e) -> {
-                        if (!result.isSuccessful()) {
-                            player.disconnect(ComponentUtil.toVelocity(settingsProxy.getFullServerKickMessage(server.getName())));
-                        }
-                    });
-                } else
-                    player.disconnect(ComponentUtil.toVelocity(settingsProxy.getFullServerKickMessage(server.getName())));
+                players.add(player);
             } else {
-                player.sendMessage(ComponentUtil.toVelocity(settingsProxy.getMessage("singleMaintenanceActivated", "%SERVER%", server.getName())));
+                player.sendMessage(activatedMessage);
             }
         }
+
+        drainPlayers(server, players, player -> {
+            if (!checkForFallback) {
+                player.disconnect(kickMessage);
+                return null;
+            }
+
+            player.sendMessage(activatedMessage);
+            // Kick the player if fallback server is not reachable
+            return player.createConnectionRequest(fallbackServer).connect().whenComplete((result, e) -> {
+                if (e != null || !result.isSuccessful()) {
+                    player.disconnect(kickMessage);
+                }
+            });
+        }, checkForFallback ? "Moving players from " + server.getName() + " to " + fallback.getName() : "Kicking players from " + server.getName());
     }
 
     @Override
     protected void kickPlayersTo(final Server server) {
         final RegisteredServer waitingServer = ((VelocityServer) server).getServer();
+        final net.kyori.adventure.text.Component sentMessage = ComponentUtil.toVelocity(settingsProxy.getMessage("sentToWaitingServer", "%SERVER%", server.getName()));
+        final net.kyori.adventure.text.Component kickMessage = ComponentUtil.toVelocity(settingsProxy.getKickMessage());
         // Notifications done in global method
+        final List<Player> players = new ArrayList<>();
         for (final Player player : this.server.getAllPlayers()) {
             if (hasPermission(player, "bypass") || settingsProxy.isWhitelisted(player.getUniqueId())) continue;
             if (player.getCurrentServer().isPresent() && player.getCurrentServer().get().getServerInfo().getName().equals(waitingServer.getServerInfo().getName()))
                 continue;
-            if (!isMaintenance(waitingServer)) {
-                player.createConnectionRequest(waitingServer).connect().whenComplete((result, e) -> {
-                    if (result.isSuccessful()) {
-                        player.sendMessage(ComponentUtil.toVelocity(settingsProxy.getMessage("sentToWaitingServer", "%SERVER%", server.getName())));
-                    } else {
-                        player.disconnect(ComponentUtil.toVelocity(settingsProxy.getKickMessage()));
-                    }
-                });
-            } else {
-                player.disconnect(ComponentUtil.toVelocity(settingsProxy.getKickMessage()));
-            }
+            players.add(player);
         }
+
+        drainPlayers(players, player -> {
+            if (isMaintenance(waitingServer)) {
+                player.disconnect(kickMessage);
+                return null;
+            }
+
+            return player.createConnectionRequest(waitingServer).connect().whenComplete((result, e) -> {
+                if (e == null && result.isSuccessful()) {
+                    player.sendMessage(sentMessage);
+                } else {
+                    player.disconnect(kickMessage);
+                }
+            });
+        }, "Moving players to " + server.getName());
     }
 
     @Override
@@ -217,14 +243,7 @@ public final class MaintenanceVelocityPlugin extends MaintenanceProxyPlugin {
             return CompletableFuture.completedFuture(new VelocitySenderInfo(player.get()));
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                final ProfileLookup profile = doUUIDLookup(name);
-                return new ProxyOfflineSenderInfo(profile.getUuid(), profile.getName());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        return lookupProfile(name).thenApply(profile -> profile != null ? new ProxyOfflineSenderInfo(profile.getUuid(), profile.getName()) : null);
     }
 
     @Override
@@ -20,6 +20,8 @@ package eu.kennytv.maintenance.velocity.listener;
 import com.velocitypowered.api.event.EventHandler;
 import com.velocitypowered.api.event.proxy.ProxyPingEvent;
 import com.velocitypowered.api.proxy.server.ServerPing;
+import eu.kennytv.maintenance.core.PingResponse;
+import eu.kennytv.maintenance.core.SettingsSnapshot;
 import eu.kennytv.maintenance.core.proxy.SettingsProxy;
 import eu.kennytv.maintenance.velocity.MaintenanceVelocityPlugin;
 import eu.kennytv.maintenance.velocity.util.ComponentUtil;
@@ -66,12 +68,14 @@ public final class ProxyPingListener implements EventHandler<ProxyPingEvent> {
 
         final ServerPing ping = event.getPing();
         final ServerPing.Builder builder = ping.asBuilder();
-        if (settings.hasCustomPlayerCountMessage()) {
-            builder.version(new ServerPing.Version(1, settings.getLegacyParsedPlayerCountMessage()));
+        final PingResponse response = settings.getPingResponse();
+        final SettingsSnapshot snapshot = response.getSettings();
+        if (snapshot.hasCustomPlayerCountMessage()) {
+            builder.version(new ServerPing.Version(1, response.getPlayerCountMessage()));
         }
 
-        if (settings.hasCustomPlayerCountHoverMessage()) {
-            final String[] lines = settings.getLegacyParsedPlayerCountHoverLines();
+        if (snapshot.hasCustomPlayerCountHoverMessage()) {
+            final String[] lines = response.getPlayerCountHoverLines();
             final ServerPing.SamplePlayer[] samplePlayers = new ServerPing.SamplePlayer[lines.length];
             for (int i = 0; i < lines.length; i++) {
                 samplePlayers[i] = new ServerPing.SamplePlayer(lines[i], ZERO_UUID);
@@ -80,11 +84,11 @@ public final class ProxyPingListener implements EventHandler<ProxyPingEvent> {
             builder.samplePlayers(samplePlayers);
         }
 
-        if (settings.isEnablePingMessages()) {
-            builder.description(ComponentUtil.toVelocity(settings.getRandomPingMessage()));
+        if (snapshot.isEnablePingMessages()) {
+            builder.description(response.getPlatformDescription(ComponentUtil::toVelocity));
         }
 
-        if (settings.hasCustomIcon() && plugin.getFavicon() != null) {
+        if (snapshot.hasCustomIcon() && plugin.getFavicon() != null) {
             builder.favicon(plugin.getFavicon());
         }
 
@@ -22,6 +22,7 @@ import com.velocitypowered.api.event.ResultedEvent;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.LoginEvent;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.connection.PreLoginEvent;
 import com.velocitypowered.api.event.player.ServerPreConnectEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
@@ -29,6 +30,7 @@ import eu.kennytv.maintenance.api.proxy.Server;
 import eu.kennytv.maintenance.core.proxy.SettingsProxy;
 import eu.kennytv.maintenance.core.proxy.listener.ProxyJoinListenerBase;
 import eu.kennytv.maintenance.core.proxy.util.ServerConnectResult;
+import eu.kennytv.maintenance.core.util.AdmissionQueue;
 import eu.kennytv.maintenance.velocity.MaintenanceVelocityPlugin;
 import eu.kennytv.maintenance.velocity.util.ComponentUtil;
 import eu.kennytv.maintenance.velocity.util.VelocitySenderInfo;
@@ -45,6 +47,19 @@ public final class ServerConnectListener extends ProxyJoinListenerBase {
         this.plugin = plugin;
     }
 
+    @Subscribe
+    public void preLogin(final PreLoginEvent event) {
+        if (!event.getResult().isAllowed()) return;
+
+        // Refuse definitely denied players before they are authenticated
+        if (shouldKickEarly(null, event.getUsername())) {
+            event.setResult(PreLoginEvent.PreLoginComponentResult.denied(ComponentUtil.toVelocity(settings.getKickMessage())));
+            if (settings.isJoinNotifications()) {
+                broadcastJoinNotification(event.getUsername());
+            }
+        }
+    }
+
     @Subscribe
     public void login(final LoginEvent event) {
         if (!event.getResult().isAllowed()) return;
@@ -59,12 +74,20 @@ public final class ServerConnectListener extends ProxyJoinListenerBase {
             if (settings.isJoinNotifications()) {
                 broadcastJoinNotification(event.getPlayer().getUsername());
             }
+            return;
+        }
+
+        final AdmissionQueue.Ticket ticket = checkProxyAdmission(sender);
+        if (ticket != null) {
+            event.setResult(ResultedEvent.ComponentResult.denied(ComponentUtil.toVelocity(getAdmissionMessage(ticket, true))));
         }
     }
 
     @Subscribe
     public void postLogin(final PostLoginEvent event) {
-        updateCheck(new VelocitySenderInfo(event.getPlayer()));
+        final Player player = event.getPlayer();
+        plugin.getProfileCache().recordSeen(player.getUniqueId(), player.getUsername());
+        updateCheck(new VelocitySenderInfo(player));
     }
 
     @Subscribe(order = PostOrder.LAST)
@@ -17,14 +17,12 @@
  */
 package eu.kennytv.maintenance.velocity.util;
 
-import com.google.gson.JsonElement;
+import eu.kennytv.maintenance.core.util.ComponentConverter;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 
 public final class ComponentUtil {
 
     public static Component toVelocity(final eu.kennytv.maintenance.lib.kyori.adventure.text.Component component) {
-        final JsonElement json = eu.kennytv.maintenance.lib.kyori.adventure.text.serializer.gson.GsonComponentSerializer.gson().serializeToTree(component);
-        return GsonComponentSerializer.gson().deserializeFromTree(json);
+        return ComponentConverter.toPlatform(component);
     }
 }